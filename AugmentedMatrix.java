@@ -1,5 +1,8 @@
 /**
  * A subclass of Matrix that allows for augmentation of a coefficient matrix.
+ * The operations inherited from Matrix, such as det and findInverse, work on the whole augmented matrix.
+ * isSquare asks about the coefficient block, unlike Matrix.isSquare, and is deprecated in favour of
+ * isCoefficientSquare.
  * 
  * @author Connor Pickles
  * @version 1.2.1
@@ -8,6 +11,8 @@
 
 public class AugmentedMatrix extends Matrix {
 	private int augIndex = -1;
+	private Matrix coefficients = null;		// copy of the coefficient block, which keeps its own LU decomposition
+	private int coefficientsModCount = 0;	// modCount of m when the coefficient block last matched the copy
 	
 	/**
 	 * Default constructor.
@@ -20,32 +25,53 @@ public class AugmentedMatrix extends Matrix {
 	 * Constructor.
 	 * @param input 2D fraction array of all values
 	 * @param augIndex the column where the augmented values begin
+	 * @throws IllegalArgumentException if augIndex is not a column of the input
 	 */
 	AugmentedMatrix(Fraction[][] input, int augIndex) {
 		super(input);
 		this.augIndex = augIndex;
 		if (augIndex >= input[0].length) {
-			System.out.println("invalid value of augIndex: " + augIndex);
-			System.exit(0);
+			throw new IllegalArgumentException("invalid value of augIndex: " + augIndex);
 		} // if
 	} // AugmentedMatrix
 	
+	/**
+	 * Constructor. Uses the given storage directly, without copying it.
+	 * @param storage storage holding all values
+	 * @param augIndex the column where the augmented values begin
+	 */
+	AugmentedMatrix(MatrixStorage storage, int augIndex) {
+		super(storage);
+		this.augIndex = augIndex;
+	} // AugmentedMatrix
+	
 	/**
 	 * Solves the augmented matrix.
 	 * @return a matrix of solutions x1, x2, x3, etc.
+	 * @throws DimensionMismatchException if there is not exactly one augmented column
+	 * @throws InconsistentSystemException if the system does not have exactly one solution
 	 */
 	public Matrix solveSystem() {
-		if (this.numCols() - 1 != this.augIndex) {
-			System.out.println("Cannot solve this system");
-			System.exit(0);
+		return solveSystem(steps);
+	} // solveSystem
+
+	/**
+	 * Solves the augmented matrix, reporting each step of the row reduction.
+	 * @param listener receives each step, or null for no tracing
+	 * @return a matrix of solutions x1, x2, x3, etc.
+	 * @throws DimensionMismatchException if there is not exactly one augmented column
+	 * @throws InconsistentSystemException if the system does not have exactly one solution
+	 */
+	public Matrix solveSystem(StepListener listener) {
+		if (!this.canSolveSystem()) {
+			throw new DimensionMismatchException("Cannot solve this system: it must have exactly one augmented column");
 		} else if (this.rank() != this.numRows()) {
-			System.out.println("The system is inconsistent");
-			System.exit(0);
+			throw new InconsistentSystemException("The system is inconsistent");
 		} // else if
 		
 		Matrix output = new Matrix(new Fraction[this.numRows()][1]);
 		
-		this.convertToReducedREF();
+		this.convertToReducedREF(listener);
 		for (int i = 0; i < this.numRows(); i++) {
 			output.setFrac(i, 0, this.getFrac(i, augIndex));
 		} // for i
@@ -53,49 +79,122 @@ public class AugmentedMatrix extends Matrix {
 		return output;
 	} // solveSystem
 	
+	/**
+	 * Solves the system for every augmented column at once. The coefficient block must be square and invertible.
+	 * Its LU decomposition is found once and reused until the coefficient block changes, so solving against many
+	 * right hand sides costs O(n^2) per column instead of a full row reduction. Changing only the augmented
+	 * columns between calls keeps the decomposition; checking that the coefficients are unchanged costs O(n^2).
+	 * Does not alter the matrix.
+	 * @param parallel true to split the right hand sides across threads
+	 * @return a matrix with the solution for each augmented column in the same column
+	 * @throws DimensionMismatchException if the coefficient block is not square
+	 * @throws SingularMatrixException if the coefficient block is singular
+	 */
+	public Matrix solveSystems(boolean parallel) {
+		if (!this.canSolveSystems()) {
+			throw new DimensionMismatchException("Cannot solve this system: the coefficient block must be square");
+		} // if
+
+		// a change to the right hand sides alone keeps the copy and its LU decomposition
+		if (coefficients != null && coefficientsModCount != m.modCount() && sameCoefficients()) {
+			coefficientsModCount = m.modCount();
+		} // if
+
+		if (coefficients == null || coefficientsModCount != m.modCount()) {
+			PackedStorage storage = new PackedStorage(this.numRows(), augIndex);
+			for (int i = 0; i < this.numRows(); i++) {
+				for (int j = 0; j < augIndex; j++) {
+					storage.set(i, j, m.get(i, j));
+				} // for j
+			} // for i
+			coefficients = new Matrix(storage);
+			coefficientsModCount = m.modCount();
+		} // if
+
+		PackedStorage rhs = new PackedStorage(this.numRows(), this.numCols() - augIndex);
+		for (int i = 0; i < this.numRows(); i++) {
+			for (int j = augIndex; j < this.numCols(); j++) {
+				rhs.set(i, j - augIndex, m.get(i, j));
+			} // for j
+		} // for i
+
+		return coefficients.solve(new Matrix(rhs), parallel);
+	} // solveSystems
+
+	/**
+	 * Compares the coefficient block with the copy solveSystems made of it. Costs O(n^2), against O(n^3)
+	 * to decompose the block again.
+	 * @return true if every coefficient is unchanged, false otherwise
+	 */
+	private boolean sameCoefficients() {
+		for (int i = 0; i < this.numRows(); i++) {
+			for (int j = 0; j < augIndex; j++) {
+				if (m.isZero(i, j) != coefficients.m.isZero(i, j)
+						|| (!m.isZero(i, j) && !m.get(i, j).sameValue(coefficients.m.get(i, j)))) {
+					return false;
+				} // if
+			} // for j
+		} // for i
+		return true;
+	} // sameCoefficients
+
+	/**
+	 * Checks, without doing any arithmetic, if solveSystem has the right shape to work with.
+	 * @return true if there is exactly one augmented column, false otherwise
+	 */
+	public boolean canSolveSystem() {
+		return (this.numCols() - 1 == augIndex);
+	} // canSolveSystem
+
+	/**
+	 * Checks, without doing any arithmetic, if solveSystems has the right shape to work with.
+	 * @return true if the coefficient block is square, false otherwise
+	 */
+	public boolean canSolveSystems() {
+		return this.isCoefficientSquare();
+	} // canSolveSystems
+
 	/**
 	 * Returns a matrix of type Matrix from this AugmentedMatrix. Row and column values are inclusive:
 	 * 0 <= row < numRows and 0 <= col < numCols
+	 * The matrix is a view, so no entries are copied until one of the two matrices is changed.
+	 * Call releaseView on it once it is no longer needed, so this matrix does not copy it when it changes.
 	 * @param firstRow the first row of the new matrix
 	 * @param lastRow the last row of the new matrix
 	 * @param firstCol the first column of the new matrix
 	 * @param lastCol the last column of the new matrix
 	 * @return a Matrix from the AugmentedMatrix
+	 * @throws IllegalArgumentException if the rows and columns are not inside the matrix
 	 */
 	public Matrix getMatrix(int firstRow, int lastRow, int firstCol, int lastCol) {
-		Matrix output = new Matrix();
-		
-		for (int i = firstRow; i <= lastRow; i++) {
-			for (int j = firstCol; j <= lastCol; j++) {
-				output.setFrac(i - firstRow, j - firstCol, this.getFrac(i, j));
-			} // for j
-		} // for i
-		
-		return output;
+		return new Matrix(ViewStorage.submatrix(m, firstRow, firstCol, lastRow - firstRow + 1, lastCol - firstCol + 1));
 	} // getMatrix
 	
 	/**
-	 * Determines if the coefficient matrix is a square matrix.
+	 * Determines if the coefficient matrix is a square matrix. Kept for existing callers; det, inverse and
+	 * the other operations inherited from Matrix check the shape of the whole augmented matrix instead.
 	 * @return true if the coefficient matrix is square, false otherwise
+	 * @deprecated the name suggests the whole matrix, as in Matrix; use isCoefficientSquare
 	 */
+	@Deprecated
 	public boolean isSquare() {
-		return getMatrix(0, 0, this.numRows() - 1, augIndex - 1).isSquare();
+		return this.isCoefficientSquare();
 	} // isSquare
 	
+	/**
+	 * Determines if the coefficient matrix, the columns before augIndex, is a square matrix.
+	 * @return true if the coefficient matrix is square, false otherwise
+	 */
+	public boolean isCoefficientSquare() {
+		return (this.numRows() == augIndex);
+	} // isCoefficientSquare
+	
 	/**
 	 * Copies the augmented matrix into a new augmented matrix.
 	 * @return a copy of the augmented matrix
 	 */
 	public AugmentedMatrix copy() {
-		AugmentedMatrix output = new AugmentedMatrix(new Fraction[this.numRows()][this.numCols()], this.augIndex);
-		
-		for (int i = 0; i < output.numRows(); i++) {
-			for (int j = 0; j < output.numCols(); j++) {
-				output.setFrac(i, j, this.getFrac(i, j));
-			} // for j
-		} // for i
-		
-		return output;
+		return new AugmentedMatrix(m.copy(), this.augIndex);
 	} // copy
 	
 	/**
@@ -0,0 +1,215 @@
+/**
+ * Fraction-free (Bareiss) Gaussian elimination. Each row of the matrix is scaled to clear its
+ * denominators, then the integer matrix is reduced using exact division by the previous pivot,
+ * so every entry stays the size of a minor of the original matrix.
+ * Runs on longs and switches to BigInteger if any value overflows.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.math.BigInteger;
+
+class BareissElimination {
+	private final int rows;
+	private final int cols;
+	private long [][] a = null;
+	private BigInteger [][] big = null;
+	private BigInteger scale = BigInteger.ONE;	// product of the row multipliers used to clear denominators
+	private int rank = 0;
+	private int sign = 1;
+	private StringBuilder pivots = null;	// description of each pivot, only kept when tracing
+
+	/**
+	 * Constructor. Eliminates a copy of the given matrix; the matrix itself is not changed.
+	 * @param matrix matrix to eliminate
+	 */
+	BareissElimination(Matrix matrix) {
+		this(matrix, null);
+	} // BareissElimination
+
+	/**
+	 * Constructor. Eliminates a copy of the given matrix and reports the pivots once elimination is done.
+	 * @param matrix matrix to eliminate
+	 * @param listener receives the pivots, or null for no tracing
+	 */
+	BareissElimination(Matrix matrix, StepListener listener) {
+		rows = matrix.numRows();
+		cols = matrix.numCols();
+
+		try {
+			eliminateLong(matrix, listener != null);
+		} catch (ArithmeticException e) {
+			a = null;
+			eliminateBig(matrix, listener != null);
+		} // catch
+
+		// reported here so the pivots of an overflowed long run are never seen
+		if (listener != null && pivots.length() > 0) {
+			listener.note(pivots.toString().trim(), null);
+		} // if
+	} // BareissElimination
+
+	/**
+	 * Clears denominators and eliminates using longs. Throws if any value overflows.
+	 * @param matrix matrix to eliminate
+	 * @param trace true to describe each pivot
+	 */
+	private void eliminateLong(Matrix matrix, boolean trace) {
+		a = new long[rows][cols];
+		pivots = trace? new StringBuilder() : null;
+		scale = BigInteger.ONE;
+		rank = 0;
+		sign = 1;
+
+		// scale each row by the lcm of its denominators
+		for (int i = 0; i < rows; i++) {
+			long lcm = 1;
+			for (int j = 0; j < cols; j++) {
+				long d = matrix.getFrac(i, j).getDenominator();
+				lcm = Math.multiplyExact(lcm / Fraction.gcd(lcm, d), d);
+			} // for j
+			for (int j = 0; j < cols; j++) {
+				Fraction f = matrix.getFrac(i, j);
+				a[i][j] = Math.multiplyExact(f.getNumerator(), lcm / f.getDenominator());
+			} // for j
+			scale = scale.multiply(BigInteger.valueOf(lcm));
+		} // for i
+
+		long previous = 1;
+		for (int col = 0; col < cols && rank < rows; col++) {
+			int pivot = rank;
+			while (pivot < rows && a[pivot][col] == 0) {
+				pivot++;
+			} // while
+
+			if (pivot == rows) {
+				continue;
+			} else if (pivot != rank) {
+				long [] temp = a[pivot];
+				a[pivot] = a[rank];
+				a[rank] = temp;
+				sign = -sign;
+			} // else if
+
+			long p = a[rank][col];
+			for (int i = rank + 1; i < rows; i++) {
+				long lead = a[i][col];
+				for (int j = col + 1; j < cols; j++) {
+					a[i][j] = Math.subtractExact(Math.multiplyExact(p, a[i][j]), Math.multiplyExact(lead, a[rank][j])) / previous;
+				} // for j
+				a[i][col] = 0;
+			} // for i
+
+			if (trace) {
+				pivots.append("Pivot " + p + " at row " + rank + ", col " + col + "; dividing the rows below by " + previous + "\n");
+			} // if
+
+			previous = p;
+			rank++;
+		} // for col
+	} // eliminateLong
+
+	/**
+	 * Clears denominators and eliminates using BigIntegers.
+	 * @param matrix matrix to eliminate
+	 * @param trace true to describe each pivot
+	 */
+	private void eliminateBig(Matrix matrix, boolean trace) {
+		big = new BigInteger[rows][cols];
+		pivots = trace? new StringBuilder() : null;
+		scale = BigInteger.ONE;
+		rank = 0;
+		sign = 1;
+
+		// scale each row by the lcm of its denominators
+		for (int i = 0; i < rows; i++) {
+			BigInteger lcm = BigInteger.ONE;
+			for (int j = 0; j < cols; j++) {
+				BigInteger d = matrix.getFrac(i, j).getBigDenominator();
+				lcm = lcm.divide(lcm.gcd(d)).multiply(d);
+			} // for j
+			for (int j = 0; j < cols; j++) {
+				Fraction f = matrix.getFrac(i, j);
+				big[i][j] = f.getBigNumerator().multiply(lcm.divide(f.getBigDenominator()));
+			} // for j
+			scale = scale.multiply(lcm);
+		} // for i
+
+		BigInteger previous = BigInteger.ONE;
+		for (int col = 0; col < cols && rank < rows; col++) {
+			int pivot = rank;
+			while (pivot < rows && big[pivot][col].signum() == 0) {
+				pivot++;
+			} // while
+
+			if (pivot == rows) {
+				continue;
+			} else if (pivot != rank) {
+				BigInteger [] temp = big[pivot];
+				big[pivot] = big[rank];
+				big[rank] = temp;
+				sign = -sign;
+			} // else if
+
+			BigInteger p = big[rank][col];
+			for (int i = rank + 1; i < rows; i++) {
+				BigInteger lead = big[i][col];
+				for (int j = col + 1; j < cols; j++) {
+					big[i][j] = p.multiply(big[i][j]).subtract(lead.multiply(big[rank][j])).divide(previous);
+				} // for j
+				big[i][col] = BigInteger.ZERO;
+			} // for i
+
+			if (trace) {
+				pivots.append("Pivot " + p + " at row " + rank + ", col " + col + "; dividing the rows below by " + previous + "\n");
+			} // if
+
+			previous = p;
+			rank++;
+		} // for col
+	} // eliminateBig
+
+	/**
+	 * Gets the rank of the matrix.
+	 * @return number of pivots found
+	 */
+	public int rank() {
+		return rank;
+	} // rank
+
+	/**
+	 * Gets the determinant of the matrix. The last pivot is the determinant of the scaled integer matrix,
+	 * so the row multipliers are divided back out.
+	 * @return the determinant, or 0 if the matrix is singular or not square
+	 */
+	public Fraction det() {
+		if (rows != cols || rank != rows) {
+			return Fraction.valueOf(0);
+		} // if
+
+		BigInteger last = (a != null)? BigInteger.valueOf(a[rows - 1][cols - 1]) : big[rows - 1][cols - 1];
+		if (sign < 0) {
+			last = last.negate();
+		} // if
+		return new Fraction(last, scale);
+	} // det
+
+	/**
+	 * Copies the eliminated integer matrix, which is in Row Echelon Form, into a matrix of the same size.
+	 * @param matrix the matrix to overwrite
+	 */
+	public void copyInto(Matrix matrix) {
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (a != null) {
+					matrix.setFrac(i, j, Fraction.valueOf(a[i][j]));
+				} else {
+					matrix.setFrac(i, j, new Fraction(big[i][j], BigInteger.ONE));
+				} // else
+			} // for j
+		} // for i
+	} // copyInto
+
+} // BareissElimination
@@ -0,0 +1,21 @@
+/**
+ * Thrown when a matrix does not have the shape an operation needs: multiplying matrices whose
+ * inner dimensions differ, or asking for the determinant, inverse or LU decomposition of a matrix that is not square.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+public class DimensionMismatchException extends MatrixException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor.
+	 * @param message description of the problem
+	 */
+	public DimensionMismatchException(String message) {
+		super(message);
+	} // DimensionMismatchException
+
+} // DimensionMismatchException
@@ -0,0 +1,457 @@
+/**
+ * A Matrix object that stores its entries as doubles instead of fractions. Has the same operations
+ * as Matrix, but row reduction uses partial pivoting and compares entries against a tolerance,
+ * so it can handle systems that are too large to solve exactly.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+public class DoubleMatrix {
+	private final int rows;
+	private final int cols;
+	private final double [] d;		// row-major entries
+	protected StepListener steps = null;	// traces the methods that are not given a listener; see changeShowSteps
+
+	/**
+	 * Constructor. All entries start as 0.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 */
+	DoubleMatrix(int rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		d = new double[rows * cols];
+	} // DoubleMatrix
+
+	/**
+	 * Constructor. Uses the array directly, without copying it.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param d row-major entries
+	 */
+	private DoubleMatrix(int rows, int cols, double [] d) {
+		this.rows = rows;
+		this.cols = cols;
+		this.d = d;
+	} // DoubleMatrix
+
+	/**
+	 * Constructor.
+	 * @param input 2D double array
+	 */
+	DoubleMatrix(double [][] input) {
+		this(input.length, input[0].length);
+
+		for (int i = 0; i < rows; i++) {
+			System.arraycopy(input[i], 0, d, i * cols, cols);
+		} // for i
+	} // DoubleMatrix
+
+	/**
+	 * Constructor. Converts an exact matrix to doubles.
+	 * @param matrix matrix of fractions
+	 */
+	DoubleMatrix(Matrix matrix) {
+		this(matrix.numRows(), matrix.numCols());
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				d[i * cols + j] = matrix.getFrac(i, j).getDouble();
+			} // for j
+		} // for i
+	} // DoubleMatrix
+
+	/**
+	 * Converts the matrix to a matrix of fractions. Each double is converted exactly.
+	 * @return matrix of fractions with the same values
+	 */
+	public Matrix toMatrix() {
+		Matrix output = new Matrix(new PackedStorage(rows, cols));
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				output.setFrac(i, j, new Fraction(d[i * cols + j]));
+			} // for j
+		} // for i
+
+		return output;
+	} // toMatrix
+
+	/**
+	 * Converts the matrix to a matrix of fractions, replacing each double with the closest fraction
+	 * whose denominator is at most maxDenominator. Use this for data that was entered as simple fractions
+	 * or short decimals, like 0.1, which doubles cannot store exactly.
+	 * @param maxDenominator largest denominator allowed in an entry, at least 1
+	 * @return matrix of fractions close to these values
+	 */
+	public Matrix toMatrix(long maxDenominator) {
+		Matrix output = new Matrix(new PackedStorage(rows, cols));
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				output.setFrac(i, j, Fraction.approximate(d[i * cols + j], maxDenominator));
+			} // for j
+		} // for i
+
+		return output;
+	} // toMatrix
+
+	/**
+	 * Convert matrix to Row Echelon Form using partial pivoting: the pivot in each column is
+	 * the entry with the largest absolute value. Entries within the tolerance of 0 are set to 0.
+	 * @return matrix in REF
+	 */
+	public DoubleMatrix convertToREF() {
+		return convertToREF(steps);
+	} // convertToREF
+
+	/**
+	 * Convert matrix to Row Echelon Form using partial pivoting, reporting each step. The listener's methods
+	 * take a Matrix of fractions, so the steps are reported as notes with the matrix of doubles in the text.
+	 * @param listener receives each step, or null for no tracing
+	 * @return matrix in REF
+	 */
+	public DoubleMatrix convertToREF(StepListener listener) {
+		eliminate(defaultTolerance(), listener);
+		return this;
+	} // convertToREF
+
+	/**
+	 * Row reduces the matrix in place with partial pivoting.
+	 * @param tolerance entries with an absolute value at or below this are treated as 0
+	 * @param listener receives each step, or null for no tracing
+	 * @return the sign of the row permutation, or 0 if the matrix has fewer pivots than rows
+	 */
+	private int eliminate(double tolerance, StepListener listener) {
+		int pivotRow = 0;
+		int sign = 1;
+
+		for (int col = 0; col < cols && pivotRow < rows; col++) {
+			// find the largest entry at or below the pivot row
+			int best = pivotRow;
+			for (int i = pivotRow + 1; i < rows; i++) {
+				if (Math.abs(d[i * cols + col]) > Math.abs(d[best * cols + col])) {
+					best = i;
+				} // if
+			} // for i
+
+			if (Math.abs(d[best * cols + col]) <= tolerance) {
+				for (int i = pivotRow; i < rows; i++) {
+					d[i * cols + col] = 0;
+				} // for i
+				continue;
+			} else if (best != pivotRow) {
+				swapRows(best, pivotRow);
+				sign = -sign;
+				if (listener != null) {
+					listener.note("Swap rows " + best + " and " + pivotRow + ":\n" + this, null);
+				} // if
+			} // else if
+
+			double pivot = d[pivotRow * cols + col];
+			for (int i = pivotRow + 1; i < rows; i++) {
+				double coefficient = d[i * cols + col] / pivot;
+				if (coefficient == 0) {
+					continue;
+				} // if
+				d[i * cols + col] = 0;
+				for (int j = col + 1; j < cols; j++) {
+					d[i * cols + j] -= coefficient * d[pivotRow * cols + j];
+				} // for j
+			} // for i
+
+			if (listener != null) {
+				listener.note("Cancelled column " + col + " below row " + pivotRow + ":\n" + this, null);
+			} // if
+			pivotRow++;
+		} // for col
+
+		return (pivotRow == rows)? sign : 0;
+	} // eliminate
+
+	/**
+	 * Converts a matrix to Reduced Row Echelon Form.
+	 * @return matrix in RREF
+	 */
+	public DoubleMatrix convertToReducedREF() {
+		return convertToReducedREF(steps);
+	} // convertToReducedREF
+
+	/**
+	 * Converts a matrix to Reduced Row Echelon Form, reporting each step as convertToREF does.
+	 * @param listener receives each step, or null for no tracing
+	 * @return matrix in RREF
+	 */
+	public DoubleMatrix convertToReducedREF(StepListener listener) {
+		double tolerance = defaultTolerance();
+		eliminate(tolerance, listener);
+
+		for (int i = rows - 1; i >= 0; i--) {
+			int col = 0;
+			while (col < cols && d[i * cols + col] == 0) {
+				col++;
+			} // while
+
+			if (col == cols) {
+				continue;
+			} // if
+
+			// make the leading entry 1, then clear the entries above it
+			double pivot = d[i * cols + col];
+			d[i * cols + col] = 1;
+			for (int j = col + 1; j < cols; j++) {
+				d[i * cols + j] /= pivot;
+			} // for j
+
+			for (int k = 0; k < i; k++) {
+				double coefficient = d[k * cols + col];
+				if (coefficient == 0) {
+					continue;
+				} // if
+				d[k * cols + col] = 0;
+				for (int j = col + 1; j < cols; j++) {
+					d[k * cols + j] -= coefficient * d[i * cols + j];
+				} // for j
+			} // for k
+		} // for i
+
+		if (listener != null) {
+			listener.note("Reduced Row Echelon Form:\n" + this, null);
+		} // if
+		return this;
+	} // convertToReducedREF
+
+	/**
+	 * Finds the determinant using elimination with partial pivoting. Does not alter the matrix.
+	 * @return the determinant of the matrix
+	 * @throws DimensionMismatchException if the matrix is not square
+	 */
+	public double det() {
+		if (rows != cols) {
+			throw new DimensionMismatchException("cannot get the determinate of a " + rows + "x" + cols + " matrix, it is not square");
+		} // if
+
+		DoubleMatrix temp = this.copy();
+		int sign = temp.eliminate(0, null);
+		double output = sign;
+
+		for (int i = 0; i < rows && output != 0; i++) {
+			output *= temp.d[i * cols + i];
+		} // for i
+
+		return output;
+	} // det
+
+	/**
+	 * Finds the inverse of the matrix with Gauss-Jordan elimination on [A | I]. Does not alter the matrix.
+	 * @return the inverse of the matrix
+	 * @throws DimensionMismatchException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular to within the tolerance
+	 */
+	public DoubleMatrix findInverse() {
+		if (rows != cols) {
+			throw new DimensionMismatchException("cannot invert a " + rows + "x" + cols + " matrix, it is not square");
+		} // if
+
+		DoubleMatrix temp = new DoubleMatrix(rows, cols * 2);
+		for (int i = 0; i < rows; i++) {
+			System.arraycopy(d, i * cols, temp.d, i * temp.cols, cols);
+			temp.d[i * temp.cols + cols + i] = 1;
+		} // for i
+
+		temp.convertToReducedREF();
+		if (temp.d[(rows - 1) * temp.cols + cols - 1] != 1) {
+			throw new SingularMatrixException("This matrix is not invertible.");
+		} // if
+
+		DoubleMatrix output = new DoubleMatrix(rows, cols);
+		for (int i = 0; i < rows; i++) {
+			System.arraycopy(temp.d, i * temp.cols + cols, output.d, i * cols, cols);
+		} // for i
+
+		return output;
+	} // findInverse
+
+	/**
+	 * Multiplies two matrices together. This matrix is multiplied on the left, the given matrix is multiplied on the right.
+	 * @param m right multiplied matrix
+	 * @return A new matrix
+	 * @throws DimensionMismatchException if this matrix does not have as many columns as m has rows
+	 */
+	public DoubleMatrix multiply(DoubleMatrix m) {
+		if (cols != m.rows) {
+			throw new DimensionMismatchException("cannot multiply a " + rows + "x" + cols + " matrix by a " + m.rows + "x" + m.cols + " matrix");
+		} // if
+
+		// Strassen-Winograd for large products, the tiled classical product otherwise
+		return new DoubleMatrix(rows, m.cols, StrassenMultiply.multiply(d, m.d, rows, cols, m.cols));
+	} // multiply
+
+	/**
+	 * Finds the transpose of this matrix.
+	 * @return the transpose of this matrix
+	 */
+	public DoubleMatrix findTranspose() {
+		DoubleMatrix output = new DoubleMatrix(cols, rows);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				output.d[j * rows + i] = d[i * cols + j];
+			} // for j
+		} // for i
+
+		return output;
+	} // findTranspose
+
+	/**
+	 * Finds the rank of the matrix using the default tolerance.
+	 * @return rank of the matrix
+	 */
+	public int rank() {
+		return rank(defaultTolerance());
+	} // rank
+
+	/**
+	 * Finds the rank of the matrix. Does not alter the matrix.
+	 * @param tolerance pivots with an absolute value at or below this count as 0
+	 * @return rank of the matrix
+	 */
+	public int rank(double tolerance) {
+		DoubleMatrix temp = this.copy();
+		temp.eliminate(tolerance, null);
+		int output = 0;
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (temp.d[i * cols + j] != 0) {
+					output++;
+					break;
+				} // if
+			} // for j
+		} // for i
+
+		return output;
+	} // rank
+
+	/**
+	 * Finds the nullity of the matrix. Uses rank(A) + nullity(A) = n, for a mxn matrix.
+	 * @return nullity of the matrix
+	 */
+	public int nullity() {
+		return cols - rank();
+	} // nullity
+
+	/**
+	 * Gets the default tolerance for treating an entry as 0: max(m, n) units in the last place
+	 * of the largest entry.
+	 * @return the tolerance
+	 */
+	private double defaultTolerance() {
+		double max = 0;
+
+		for (int i = 0; i < d.length; i++) {
+			max = Math.max(max, Math.abs(d[i]));
+		} // for i
+
+		return Math.max(rows, cols) * Math.ulp(max);
+	} // defaultTolerance
+
+	/**
+	 * Swaps two rows in a matrix.
+	 * @param row1
+	 * @param row2
+	 */
+	private void swapRows(int row1, int row2) {
+		for (int j = 0; j < cols; j++) {
+			double temp = d[row1 * cols + j];
+			d[row1 * cols + j] = d[row2 * cols + j];
+			d[row2 * cols + j] = temp;
+		} // for j
+	} // swapRows
+
+	/**
+	 * Copies the matrix into a new matrix.
+	 * @return a copy of the matrix
+	 */
+	public DoubleMatrix copy() {
+		DoubleMatrix output = new DoubleMatrix(rows, cols);
+		System.arraycopy(d, 0, output.d, 0, d.length);
+		return output;
+	} // copy
+
+	/**
+	 * Gets an entry from the matrix.
+	 * @param row row location
+	 * @param col column location
+	 * @return the value in the given location
+	 */
+	public double getDouble(int row, int col) {
+		return d[row * cols + col];
+	} // getDouble
+
+	/**
+	 * Sets an entry in the matrix.
+	 * @param row row location
+	 * @param col column location
+	 * @param value value of the new entry
+	 */
+	public void setDouble(int row, int col, double value) {
+		d[row * cols + col] = value;
+	} // setDouble
+
+	/**
+	 * Gets the number of rows in the matrix.
+	 * @return number of rows
+	 */
+	public int numRows() {
+		return rows;
+	} // numRows
+
+	/**
+	 * Gets the number of columns in the matrix.
+	 * @return number of columns
+	 */
+	public int numCols() {
+		return cols;
+	} // numCols
+
+	/**
+	 * Switches step tracing on this matrix on or off. When on, methods that are not given a
+	 * listener print each step to System.out. Other matrices are not affected.
+	 */
+	public void changeShowSteps() {
+		steps = (steps == null)? new PrintStepListener() : null;
+	} // changeShowSteps
+
+	/**
+	 * Sets the listener used by the methods of this matrix that are not given one.
+	 * @param listener receives each step, or null for no tracing
+	 */
+	public void setStepListener(StepListener listener) {
+		steps = listener;
+	} // setStepListener
+
+	/**
+	 * Displays a matrix.
+	 */
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				sb.append(d[i * cols + j]);
+				if (j + 1 < cols) {
+					sb.append(" ");
+				} // if
+			} // for j
+			if (i != rows - 1) {
+				sb.append("\n");
+			} // if
+		} // for i
+
+		return sb.toString();
+	} // toString
+
+} // DoubleMatrix
@@ -18,17 +18,23 @@ public class ElementaryMatrix extends Matrix {
 	/**
 	 * Constructor.
 	 * @param input 2D fraction array of all values
-	 * @param augIndex the column where the augmented values begin
+	 * @throws IllegalArgumentException if the input is not an elementary matrix
 	 */
 	ElementaryMatrix(Fraction[][] input) {
 		super(input);
 		if (!this.isElementary()) {
-			System.out.println("error: cannot create elementary matrix from input:");
-			System.out.println(new Matrix(input));
-			System.exit(0);
+			throw new IllegalArgumentException("cannot create elementary matrix from input:\n" + this);
 		} // if
 	} // ElementaryMatrix
 	
+	/**
+	 * Constructor. Uses the given storage directly; the caller guarantees it holds an elementary matrix.
+	 * @param storage storage holding the entries
+	 */
+	ElementaryMatrix(MatrixStorage storage) {
+		super(storage);
+	} // ElementaryMatrix
+	
 	/**
 	 * Inverts the elementary matrix.
 	 * @return the inversed elementary matrix
@@ -36,10 +42,10 @@ public class ElementaryMatrix extends Matrix {
 	public Matrix invert() {
 		for (int i = 0; i < this.numRows(); i++) {
 			for (int j = 0; j < this.numCols(); j++) {
-				if (i == j && m[i][j].getNumerator() != 1) {
-					m[i][j] = new Fraction(m[i][j].getDenominator(), m[i][j].getNumerator());
-				} else if (i != j && m[i][j].getNumerator() != 0) {
-					m[i][j] = m[i][j].multiply(new Fraction(-1));
+				if (i == j && !m.get(i, j).isOne()) {
+					m.set(i, j, m.get(i, j).reciprocal());
+				} else if (i != j && !m.isZero(i, j)) {
+					m.set(i, j, m.get(i, j).negate());
 				} // else if
 			} // for j
 		} // for i
@@ -52,15 +58,7 @@ public class ElementaryMatrix extends Matrix {
 	 * @return a copy of the elementary matrix
 	 */
 	public ElementaryMatrix copy() {
-		ElementaryMatrix output = new ElementaryMatrix(new Fraction[this.numRows()][this.numCols()]);
-		
-		for (int i = 0; i < output.numRows(); i++) {
-			for (int j = 0; j < output.numCols(); j++) {
-				output.setFrac(i, j, this.getFrac(i, j));
-			} // for j
-		} // for i
-		
-		return output;
+		return new ElementaryMatrix(m.copy());
 	} // copy
 	
 } // ElementaryMatrix
\ No newline at end of file
@@ -1,15 +1,27 @@
 /**
- * A Fraction object. Stores the numerator and denominator as integers.
+ * A Fraction object. Stores the numerator and denominator as longs, and promotes
+ * to BigInteger only when a value no longer fits in a long.
  * Can add and multiply fractions together.
  * 
  * @author Connor
- * @version 1.2.1
+ * @version 1.3.0
  * @since 2017-03-14
  */
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
 class Fraction {
-    private int numerator = 0;      
-    private int denominator = 0; 
+    // shared instances of p/q in lowest terms, indexed [q - 1][p + range], for 1 <= q <= maximum denominator and |p| <= range;
+    // the size can be set with the system properties fraction.cache.range and fraction.cache.denominator
+    private static volatile Fraction [][] cache = createCache(Integer.getInteger("fraction.cache.range", 128),
+            Integer.getInteger("fraction.cache.denominator", 12));
+    
+    private long numerator = 0;      
+    private long denominator = 0; 
+    private BigInteger bigNumerator = null;    // only set when the value does not fit in a long
+    private BigInteger bigDenominator = null;
     
     /**
      * Default constructor
@@ -24,18 +36,17 @@ class Fraction {
      * @param p numerator
      * @param q denominator
      */
-    Fraction(int p, int q) {
+    Fraction(long p, long q) {
         if (q == 0) {
             q = 1;
             p = 0;
+        } else if (p == Long.MIN_VALUE || q == Long.MIN_VALUE) {
+            setBig(BigInteger.valueOf(p), BigInteger.valueOf(q));
+            return;
         } else {
-            for (int i = 2; i <= ((p < q)? q : p); i++) {
-                if ((p % i == 0) && (q % i == 0)) {
-                    p /= i;
-                    q /= i;
-                    i = 1;
-                } // if
-            } // for j
+            long g = gcd(p, q);
+            p /= g;
+            q /= g;
         } // else
         numerator = p;
         denominator = q;
@@ -47,81 +58,382 @@ class Fraction {
     } // Fraction
     
     /**
-     * Constructor for a double. Converts a double value into a fraction.
+     * Constructor for a fraction with arbitrarily large values.
+     * Values that fit in a long are stored as longs.
+     * @param p numerator
+     * @param q denominator
+     */
+    Fraction(BigInteger p, BigInteger q) {
+        if (q.signum() == 0) {
+            numerator = 0;
+            denominator = 1;
+        } else {
+            setBig(p, q);
+        } // else
+    } // Fraction
+    
+    /**
+     * Constructor for a double. Converts the double exactly, from its IEEE-754 bits: every finite
+     * double is m * 2^e for an integer m, so it is m / 2^-e in lowest terms once m is made odd.
+     * For example, 0.1 becomes 3602879701896397/36028797018963968. Use approximate for the nearest simple fraction.
      * @param d double
+     * @throws IllegalArgumentException if d is NaN or infinite
      */
     Fraction(double d) {
-    	Double input = new Double(d);
-    	denominator = 1;
-    	
-    	while (true) {
-    		input *= 10;
-    		denominator *= 10;
-    		
-    		if (input.toString().charAt(input.toString().length() - 2) == '.' && input.toString().charAt(input.toString().length() - 1) == '0') {
-    			numerator = input.intValue();
-    			Fraction newF = new Fraction(numerator, denominator);
-    			this.numerator = newF.numerator;
-    			this.denominator = newF.denominator;
-    			break;
-    		} // if
-    	} // while
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("cannot convert " + d + " to a fraction");
+        } // if
+
+        long bits = Double.doubleToRawLongBits(d);
+        int exponent = (int)((bits >> 52) & 0x7ff);
+        long mantissa = bits & 0xfffffffffffffL;
+        denominator = 1;
+
+        if (exponent == 0) {
+            exponent = -1074;      // subnormal: no implicit leading 1
+        } else {
+            mantissa |= 1L << 52;
+            exponent -= 1075;
+        } // else
+
+        if (mantissa == 0) {
+            return;
+        } // if
+
+        // make the mantissa odd so the fraction is in lowest terms
+        int zeros = Long.numberOfTrailingZeros(mantissa);
+        mantissa >>= zeros;
+        exponent += zeros;
+        if (bits < 0) {
+            mantissa = -mantissa;
+        } // if
+
+        if (exponent >= 0 && exponent < Long.numberOfLeadingZeros(Math.abs(mantissa)) - 1) {
+            numerator = mantissa << exponent;
+        } else if (exponent < 0 && exponent > -63) {
+            numerator = mantissa;
+            denominator = 1L << -exponent;
+        } else if (exponent >= 0) {
+            setBig(BigInteger.valueOf(mantissa).shiftLeft(exponent), BigInteger.ONE);
+        } else {
+            setBig(BigInteger.valueOf(mantissa), BigInteger.ONE.shiftLeft(-exponent));
+        } // else
     } // Fraction
     
     /**
-     * Constructor for an integer. Casts the int to a double and calls the double constructor.
+     * Constructor for an integer.
      * @param i int
      */
     Fraction(int i) {
-    	this((double)i);
+        numerator = i;
+        denominator = 1;
     } // Fraction
 
+    /**
+     * Finds the fraction closest to a double whose denominator is at most maxDenominator, using the
+     * continued fraction of the exact value. The last convergent within the bound is compared with the
+     * best semiconvergent, so the result is the best rational approximation. For example,
+     * approximate(0.1, 1000) is 1/10 and approximate(Math.PI, 1000) is 355/113.
+     * @param d double
+     * @param maxDenominator largest denominator allowed, at least 1
+     * @return the closest fraction with a small enough denominator
+     * @throws IllegalArgumentException if d is NaN or infinite, or maxDenominator is less than 1
+     */
+    static Fraction approximate(double d, long maxDenominator) {
+        if (maxDenominator < 1) {
+            throw new IllegalArgumentException("maximum denominator must be at least 1: " + maxDenominator);
+        } // if
+
+        Fraction exact = new Fraction(d);
+        BigInteger max = BigInteger.valueOf(maxDenominator);
+        if (exact.bigDenominator().compareTo(max) <= 0) {
+            return exact;
+        } // if
+
+        // convergents p0/q0 and p1/q1 of |d| = n/m
+        BigInteger n = exact.bigNumerator().abs();
+        BigInteger m = exact.bigDenominator();
+        BigInteger p0 = BigInteger.ZERO;
+        BigInteger q0 = BigInteger.ONE;
+        BigInteger p1 = BigInteger.ONE;
+        BigInteger q1 = BigInteger.ZERO;
+
+        while (true) {
+            BigInteger[] quotient = n.divideAndRemainder(m);
+            BigInteger q2 = q0.add(quotient[0].multiply(q1));
+            if (q2.compareTo(max) > 0) {
+                break;
+            } // if
+            BigInteger p2 = p0.add(quotient[0].multiply(p1));
+            p0 = p1;
+            q0 = q1;
+            p1 = p2;
+            q1 = q2;
+            n = m;
+            m = quotient[1];
+        } // while
+
+        // the best semiconvergent within the bound, then whichever of it and the last convergent is closer
+        BigInteger k = max.subtract(q0).divide(q1);
+        BigInteger sp = p0.add(k.multiply(p1));
+        BigInteger sq = q0.add(k.multiply(q1));
+        BigInteger xn = exact.bigNumerator().abs();
+        BigInteger xd = exact.bigDenominator();
+        BigInteger semiError = sp.multiply(xd).subtract(xn.multiply(sq)).abs().multiply(q1);
+        BigInteger convergentError = p1.multiply(xd).subtract(xn.multiply(q1)).abs().multiply(sq);
+
+        Fraction output = (semiError.compareTo(convergentError) < 0)? new Fraction(sp, sq) : new Fraction(p1, q1);
+        return (d < 0)? output.negate() : output;
+    } // approximate
+
+    /**
+     * Creates a fraction from a numerator and denominator that are already in lowest terms,
+     * with a positive denominator. Skips the gcd. Common values are shared instances.
+     * @param p numerator
+     * @param q denominator
+     * @return the fraction p/q
+     */
+    static Fraction reduced(long p, long q) {
+        Fraction [][] table = cache;
+        if (q <= table.length) {
+            int range = table[0].length >> 1;
+            if (p >= -range && p <= range) {
+                return table[(int)q - 1][(int)p + range];
+            } // if
+        } // if
+        
+        Fraction newF = new Fraction();
+        newF.numerator = p;
+        newF.denominator = q;
+        return newF;
+    } // reduced
+
+    /**
+     * Gets the fraction p/q. Common values, such as small integers and fractions with small denominators,
+     * are shared instances instead of new objects, which is safe because fractions never change.
+     * @param p numerator
+     * @param q denominator; a denominator of 0 gives 0
+     * @return the fraction p/q in lowest terms
+     */
+    static Fraction valueOf(long p, long q) {
+        if (q == 0) {
+            return reduced(0, 1);
+        } else if (p == Long.MIN_VALUE || q == Long.MIN_VALUE) {
+            return new Fraction(p, q);
+        } else if (q != 1) {
+            long g = gcd(p, q);
+            p /= g;
+            q /= g;
+            if (q < 0) {
+                p = -p;
+                q = -q;
+            } // if
+        } // else if
+        
+        return reduced(p, q);
+    } // valueOf
+    
+    /**
+     * Gets an integer as a fraction. Small integers are shared instances.
+     * @param i integer
+     * @return the fraction i/1
+     */
+    static Fraction valueOf(long i) {
+        return valueOf(i, 1);
+    } // valueOf
+    
+    /**
+     * Sets the range of shared fractions returned by valueOf. Existing fractions are not affected.
+     * @param range largest absolute value of a shared numerator
+     * @param maxDenominator largest shared denominator, or 0 to turn sharing off
+     */
+    static void setCacheRange(int range, int maxDenominator) {
+        cache = createCache(range, maxDenominator);
+    } // setCacheRange
+    
+    /**
+     * Builds the table of shared fractions. Slots for fractions that are not in lowest terms are left null,
+     * since reduced and valueOf only look up fractions that are.
+     * @param range largest absolute value of a numerator
+     * @param maxDenominator largest denominator
+     * @return table indexed [q - 1][p + range]
+     */
+    private static Fraction [][] createCache(int range, int maxDenominator) {
+        Fraction [][] table = new Fraction[maxDenominator][2 * range + 1];
+        
+        for (int q = 1; q <= maxDenominator; q++) {
+            for (int p = -range; p <= range; p++) {
+                if (gcd(p, q) == 1) {
+                    Fraction newF = new Fraction();
+                    newF.numerator = p;
+                    newF.denominator = q;
+                    table[q - 1][p + range] = newF;
+                } // if
+            } // for p
+        } // for q
+        
+        return table;
+    } // createCache
+    
     /**
      * Adds two fractions together
      * @param f2 adds f2 to this fraction
      * @return the two fractions added together
      */
     public Fraction add(Fraction f2) {
-        Fraction newF = new Fraction(0, 0);
+        if (this.bigNumerator == null && f2.bigNumerator == null) {
+            try {
+                if (this.denominator == f2.denominator) {
+                    Fraction newF = new Fraction(0, 0);
+                    newF.numerator = numerator(Math.addExact(this.numerator, f2.numerator));
+                    newF.denominator = this.denominator;
+                    return simplify(newF);
+                } // if
 
-        if (this.denominator == f2.denominator) {
-            newF.numerator = this.numerator + f2.numerator;
-            newF.denominator = this.denominator;
-        } else {
-            newF.numerator = ((this.numerator * f2.denominator) + (f2.numerator * this.denominator));
-            newF.denominator = this.denominator * f2.denominator;
-        } // else
-        
-        return simplify(newF);
+                // use the lcm of the denominators; only the gcd of the denominators can divide the new numerator,
+                // so dividing by its gcd with that leaves the sum in lowest terms
+                long g = gcd(this.denominator, f2.denominator);
+                long thisScale = f2.denominator / g;
+                long p = numerator(Math.addExact(Math.multiplyExact(this.numerator, thisScale), Math.multiplyExact(f2.numerator, this.denominator / g)));
+                long q = Math.multiplyExact(this.denominator, thisScale);
+
+                long h = gcd(p, g);
+                return reduced(p / h, q / h);
+            } catch (ArithmeticException e) {
+                // overflowed a long, fall through to BigInteger
+            } // catch
+        } // if
+
+        return new Fraction(this.bigNumerator().multiply(f2.bigDenominator()).add(f2.bigNumerator().multiply(this.bigDenominator())),
+                this.bigDenominator().multiply(f2.bigDenominator()));
     } // add
 
+    /**
+     * Subtracts a fraction from this fraction
+     * @param f2 fraction to subtract
+     * @return this fraction minus f2
+     */
+    public Fraction subtract(Fraction f2) {
+        return this.add(f2.negate());
+    } // subtract
+
     /**
      * Multiplies two fractions together
      * @param f2 fraction to multiply
      * @return product of the two fractions
      */
     public Fraction multiply(Fraction f2) {
-        Fraction newF = new Fraction(0, 0);
-        
-        newF.numerator = this.numerator * f2.numerator;
-        newF.denominator = this.denominator * f2.denominator;
+        if (this.bigNumerator == null && f2.bigNumerator == null) {
+            try {
+                // cross-cancel first so the products stay small and need no further reduction
+                long g1 = gcd(this.numerator, f2.denominator);
+                long g2 = gcd(f2.numerator, this.denominator);
+                return reduced(numerator(Math.multiplyExact(this.numerator / g1, f2.numerator / g2)),
+                        Math.multiplyExact(this.denominator / g2, f2.denominator / g1));
+            } catch (ArithmeticException e) {
+                // overflowed a long, fall through to BigInteger
+            } // catch
+        } // if
         
-        return simplify(newF);
+        return new Fraction(this.bigNumerator().multiply(f2.bigNumerator()), this.bigDenominator().multiply(f2.bigDenominator()));
     } // multiply
     
+    /**
+     * Divides this fraction by another fraction
+     * @param f2 divisor
+     * @return this fraction divided by f2, or 0 if f2 is 0
+     */
+    public Fraction divide(Fraction f2) {
+        return this.multiply(f2.reciprocal());
+    } // divide
+    
+    /**
+     * Gets the negative of the fraction
+     * @return -1 times this fraction
+     */
+    public Fraction negate() {
+        if (bigNumerator != null) {
+            return new Fraction(bigNumerator.negate(), bigDenominator);
+        } // if
+        
+        Fraction newF = new Fraction(0, 0);
+        newF.numerator = -numerator;
+        newF.denominator = denominator;
+        return newF;
+    } // negate
+    
+    /**
+     * Gets the reciprocal of the fraction. The reciprocal of 0 is 0.
+     * @return 1 divided by this fraction
+     */
+    public Fraction reciprocal() {
+        if (bigNumerator != null) {
+            return new Fraction(bigDenominator, bigNumerator);
+        } // if
+        return new Fraction(denominator, numerator);
+    } // reciprocal
+    
     /**
      * Determines if the fraction is positive or negative
      * @return true if positive, false if negative
      */
     public boolean isPositive() {
-    	return (this.numerator >= 0);
+    	return (this.signum() >= 0);
     } // isPositive
     
+    /**
+     * Gets the sign of the fraction
+     * @return -1, 0 or 1 if the fraction is negative, zero or positive
+     */
+    public int signum() {
+        return (bigNumerator != null)? bigNumerator.signum() : Long.signum(numerator);
+    } // signum
+    
+    /**
+     * Determines if the fraction is 0
+     * @return true if the fraction is 0, false otherwise
+     */
+    public boolean isZero() {
+        return (bigNumerator == null && numerator == 0);
+    } // isZero
+    
+    /**
+     * Determines if the fraction is 1
+     * @return true if the fraction is 1, false otherwise
+     */
+    public boolean isOne() {
+        return (bigNumerator == null && numerator == 1 && denominator == 1);
+    } // isOne
+    
+    /**
+     * Determines if two fractions have the same value. Both are in lowest terms with positive denominators,
+     * so they are equal exactly when their numerators and denominators are.
+     * @param f2 fraction to compare with
+     * @return true if the values are equal, false otherwise
+     */
+    boolean sameValue(Fraction f2) {
+        if (this.bigNumerator == null && f2.bigNumerator == null) {
+            return (this.numerator == f2.numerator && this.denominator == f2.denominator);
+        } // if
+        return (this.bigNumerator().equals(f2.bigNumerator()) && this.bigDenominator().equals(f2.bigDenominator()));
+    } // sameValue
+    
+    /**
+     * Determines if the fraction is a whole number
+     * @return true if the denominator is 1, false otherwise
+     */
+    public boolean isInteger() {
+        return (bigNumerator == null)? denominator == 1 : bigDenominator.equals(BigInteger.ONE);
+    } // isInteger
+    
     /**
      * Gets the double representation of a fraction
      * @return numerator/denominator
      */
     public double getDouble() {
+        if (bigNumerator != null) {
+            return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64).doubleValue();
+        } // if
         double n = numerator;
         double d = denominator;
         return (n / d);
@@ -130,23 +442,58 @@ class Fraction {
     /**
      * Gets the numerator
      * @return numerator
+     * @throws ArithmeticException if the numerator does not fit in a long
      */
-    public int getNumerator() {
+    public long getNumerator() {
+        if (bigNumerator != null) {
+            return bigNumerator.longValueExact();
+        } // if
         return numerator;
     } // getNumerator
     
     /**
      * Gets the denominator
      * @return denominator
+     * @throws ArithmeticException if the denominator does not fit in a long
      */
-    public int getDenominator() {
+    public long getDenominator() {
+        if (bigNumerator != null) {
+            return bigDenominator.longValueExact();
+        } // if
         return denominator;
     } // getDenominator
     
+    /**
+     * Gets the numerator as a BigInteger. Works for fractions of any size.
+     * @return numerator
+     */
+    public BigInteger getBigNumerator() {
+        return bigNumerator();
+    } // getBigNumerator
+    
+    /**
+     * Gets the denominator as a BigInteger. Works for fractions of any size.
+     * @return denominator
+     */
+    public BigInteger getBigDenominator() {
+        return bigDenominator();
+    } // getBigDenominator
+    
+    /**
+     * Determines if the fraction has been promoted to BigInteger storage
+     * @return true if the fraction does not fit in longs
+     */
+    boolean isBig() {
+        return (bigNumerator != null);
+    } // isBig
+    
     /**
      * Displays a fraction
      */
     public String toString() {
+        if (bigNumerator != null) {
+            return (bigNumerator + "/" + bigDenominator);
+        } // if
         return (numerator + "/" + denominator);
     } // toString
     
@@ -156,17 +503,111 @@ class Fraction {
      * @return simplified fraction
      */
     private static Fraction simplify(Fraction f) {
-        if (f.numerator != 0) {
-            for (int i = 2; i <= ((f.numerator < f.denominator)? f.denominator : f.numerator); i++) {
-                if ((f.numerator % i == 0) && (f.denominator % i == 0)) {
-                    f.numerator /= i;
-                    f.denominator /= i;
-                    i = 1;
-                } // if
-            } // for i
-        } // if
+        if (f.numerator == 0) {
+            f.denominator = 1;
+        } else if (f.denominator != 1) {
+            long g = gcd(f.numerator, f.denominator);
+            f.numerator /= g;
+            f.denominator /= g;
+        } // else if
 
         return f;
     } // simplify
+    
+    /**
+     * Stores a BigInteger fraction in lowest terms, demoting it back to longs if it fits.
+     * @param p numerator
+     * @param q denominator, not 0
+     */
+    private void setBig(BigInteger p, BigInteger q) {
+        if (q.signum() < 0) {
+            p = p.negate();
+            q = q.negate();
+        } // if
+        
+        BigInteger g = p.gcd(q);
+        if (!g.equals(BigInteger.ONE)) {
+            p = p.divide(g);
+            q = q.divide(g);
+        } // if
+        
+        if (fitsInLong(p) && fitsInLong(q)) {
+            numerator = p.longValue();
+            denominator = q.longValue();
+            bigNumerator = null;
+            bigDenominator = null;
+        } else {
+            bigNumerator = p;
+            bigDenominator = q;
+        } // else
+    } // setBig
+    
+    /**
+     * Gets the numerator as a BigInteger.
+     * @return numerator
+     */
+    private BigInteger bigNumerator() {
+        return (bigNumerator != null)? bigNumerator : BigInteger.valueOf(numerator);
+    } // bigNumerator
+    
+    /**
+     * Gets the denominator as a BigInteger.
+     * @return denominator
+     */
+    private BigInteger bigDenominator() {
+        return (bigDenominator != null)? bigDenominator : BigInteger.valueOf(denominator);
+    } // bigDenominator
+    
+    /**
+     * Determines if a BigInteger can be stored as a long whose negation is also a long.
+     * @param b value to check
+     * @return true if Long.MIN_VALUE < b <= Long.MAX_VALUE
+     */
+    private static boolean fitsInLong(BigInteger b) {
+        return (b.bitLength() < 64 && b.longValue() != Long.MIN_VALUE);
+    } // fitsInLong
+    
+    /**
+     * Checks that a long result can be stored as a numerator. Long.MIN_VALUE cannot be negated and gcd
+     * does not accept it, so it is treated as an overflow, the same as a result that does not fit.
+     * @param n result of the long arithmetic
+     * @return n
+     * @throws ArithmeticException if n is Long.MIN_VALUE
+     */
+    private static long numerator(long n) {
+        if (n == Long.MIN_VALUE) {
+            throw new ArithmeticException("numerator overflow");
+        } // if
+        return n;
+    } // numerator
+    
+    /**
+     * Finds the greatest common divisor of two longs using the binary gcd algorithm.
+     * Neither value may be Long.MIN_VALUE.
+     * @param a first value
+     * @param b second value
+     * @return gcd of |a| and |b|, or 1 if both are 0
+     */
+    static long gcd(long a, long b) {
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0 || b == 0) {
+            return (a + b == 0)? 1 : a + b;
+        } // if
+        
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        while (b != 0) {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long temp = a;
+                a = b;
+                b = temp;
+            } // if
+            b -= a;
+        } // while
+        
+        return a << shift;
+    } // gcd
 
 } // Fraction class
\ No newline at end of file
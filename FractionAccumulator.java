@@ -0,0 +1,170 @@
+/**
+ * A mutable running sum of fractions for hot loops. Adds products of fractions in place without
+ * creating objects, and reduces the sum to lowest terms only when it is about to overflow or is read.
+ * Moves to BigInteger if the sum no longer fits in longs. Fraction itself stays immutable.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.math.BigInteger;
+
+class FractionAccumulator {
+	private long numerator = 0;			// not necessarily in lowest terms; never Long.MIN_VALUE
+	private long denominator = 1;		// always positive
+	private BigInteger bigNumerator = null;		// only set once the sum does not fit in longs
+	private BigInteger bigDenominator = null;
+
+	/**
+	 * Sets the sum back to 0.
+	 */
+	void reset() {
+		numerator = 0;
+		denominator = 1;
+		bigNumerator = null;
+		bigDenominator = null;
+	} // reset
+
+	/**
+	 * Sets the sum to a fraction.
+	 * @param f new value of the sum
+	 */
+	void set(Fraction f) {
+		reset();
+		if (f.isBig()) {
+			bigNumerator = f.getBigNumerator();
+			bigDenominator = f.getBigDenominator();
+		} else {
+			numerator = f.getNumerator();
+			denominator = f.getDenominator();
+		} // else
+	} // set
+
+	/**
+	 * Adds a product of two fractions to the sum: sum = sum + a * b.
+	 * @param a first factor
+	 * @param b second factor
+	 */
+	void multiplyAdd(Fraction a, Fraction b) {
+		if (a.isZero() || b.isZero()) {
+			return;
+		} else if (a.isBig() || b.isBig()) {
+			addBig(a.getBigNumerator().multiply(b.getBigNumerator()), a.getBigDenominator().multiply(b.getBigDenominator()));
+			return;
+		} // else if
+		multiplyAdd(a.getNumerator(), a.getDenominator(), b.getNumerator(), b.getDenominator());
+	} // multiplyAdd
+
+	/**
+	 * Adds a product of two fractions, given as numerators and denominators in lowest terms
+	 * with positive denominators, to the sum: sum = sum + (an/ad)(bn/bd).
+	 * @param an numerator of the first factor
+	 * @param ad denominator of the first factor
+	 * @param bn numerator of the second factor
+	 * @param bd denominator of the second factor
+	 */
+	void multiplyAdd(long an, long ad, long bn, long bd) {
+		if (an == 0 || bn == 0) {
+			return;
+		} // if
+
+		if (bigNumerator == null) {
+			try {
+				// cross-cancel the product so it is in lowest terms
+				long g1 = Fraction.gcd(an, bd);
+				long g2 = Fraction.gcd(bn, ad);
+				long pn = Math.multiplyExact(an / g1, bn / g2);
+				long pd = Math.multiplyExact(ad / g2, bd / g1);
+				if (pn != Long.MIN_VALUE && (addLong(pn, pd) || (normalize() && addLong(pn, pd)))) {
+					return;
+				} // if
+			} catch (ArithmeticException e) {
+				// the product overflowed a long, add it with BigInteger
+			} // catch
+		} // if
+
+		addBig(BigInteger.valueOf(an).multiply(BigInteger.valueOf(bn)), BigInteger.valueOf(ad).multiply(BigInteger.valueOf(bd)));
+	} // multiplyAdd
+
+	/**
+	 * Adds a fraction to the sum using longs, without reducing the result.
+	 * @param pn numerator
+	 * @param pd positive denominator
+	 * @return true if the fraction was added, false if the sum would overflow and is unchanged
+	 */
+	private boolean addLong(long pn, long pd) {
+		try {
+			long n;
+			long d;
+			if (denominator == pd) {
+				n = Math.addExact(numerator, pn);
+				d = denominator;
+			} else {
+				long g = Fraction.gcd(denominator, pd);
+				long scale = pd / g;
+				n = Math.addExact(Math.multiplyExact(numerator, scale), Math.multiplyExact(pn, denominator / g));
+				d = Math.multiplyExact(denominator, scale);
+			} // else
+
+			if (n == Long.MIN_VALUE) {
+				return false;
+			} // if
+			numerator = n;
+			denominator = (n == 0)? 1 : d;
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		} // catch
+	} // addLong
+
+	/**
+	 * Reduces the sum to lowest terms.
+	 * @return true if the sum could be made smaller, false if it was already in lowest terms
+	 */
+	private boolean normalize() {
+		long g = Fraction.gcd(numerator, denominator);
+		numerator /= g;
+		denominator /= g;
+		return g != 1;
+	} // normalize
+
+	/**
+	 * Adds a fraction to the sum using BigIntegers, moving the sum to BigInteger if it is not already.
+	 * @param pn numerator
+	 * @param pd positive denominator
+	 */
+	private void addBig(BigInteger pn, BigInteger pd) {
+		if (bigNumerator == null) {
+			bigNumerator = BigInteger.valueOf(numerator);
+			bigDenominator = BigInteger.valueOf(denominator);
+		} // if
+
+		if (bigDenominator.equals(pd)) {
+			bigNumerator = bigNumerator.add(pn);
+		} else {
+			bigNumerator = bigNumerator.multiply(pd).add(pn.multiply(bigDenominator));
+			bigDenominator = bigDenominator.multiply(pd);
+		} // else
+	} // addBig
+
+	/**
+	 * Determines if the sum is 0.
+	 * @return true if the sum is 0, false otherwise
+	 */
+	boolean isZero() {
+		return (bigNumerator == null)? numerator == 0 : bigNumerator.signum() == 0;
+	} // isZero
+
+	/**
+	 * Gets the sum as a fraction in lowest terms.
+	 * @return the sum
+	 */
+	Fraction toFraction() {
+		if (bigNumerator != null) {
+			return new Fraction(bigNumerator, bigDenominator);
+		} // if
+		return Fraction.valueOf(numerator, denominator);
+	} // toFraction
+
+} // FractionAccumulator
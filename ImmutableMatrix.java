@@ -0,0 +1,430 @@
+/**
+ * A matrix that never changes once it is built, so it can be shared between threads without locks or copies.
+ * Operations return new matrices. The rows are shared between matrices wherever they are unchanged:
+ * swapping two rows copies only the row references, and a row operation copies only the row it writes.
+ * Build one with a Builder, which also copies a row only the first time it is written after a build.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.util.Arrays;
+
+public final class ImmutableMatrix {
+	private final Fraction [][] rows;	// never written; rows may be shared with other matrices and builders
+	private final int cols;
+	private volatile Fraction det = null;	// saved results; computing one twice in a race is harmless
+	private volatile int rank = -1;
+
+	/**
+	 * Constructor. Uses the rows directly; no one may write them afterwards.
+	 * @param rows entries of the matrix, one array per row
+	 * @param cols number of columns
+	 */
+	private ImmutableMatrix(Fraction [][] rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+	} // ImmutableMatrix
+
+	/**
+	 * Creates an immutable copy of a matrix.
+	 * @param matrix matrix to copy
+	 * @return a matrix with the same entries
+	 */
+	public static ImmutableMatrix of(Matrix matrix) {
+		Fraction [][] output = new Fraction[matrix.numRows()][matrix.numCols()];
+
+		for (int i = 0; i < output.length; i++) {
+			for (int j = 0; j < matrix.numCols(); j++) {
+				output[i][j] = matrix.getFrac(i, j);
+			} // for j
+		} // for i
+
+		return new ImmutableMatrix(output, matrix.numCols());
+	} // of
+
+	/**
+	 * Creates an immutable copy of a 2D fraction array; null entries are stored as 0.
+	 * @param input 2D fraction array
+	 * @return a matrix with the same entries
+	 * @throws IllegalArgumentException if the rows are not all the same length
+	 */
+	public static ImmutableMatrix of(Fraction [][] input) {
+		Builder builder = new Builder(input.length, input[0].length);
+
+		for (int i = 0; i < input.length; i++) {
+			builder.setRow(i, input[i]);
+		} // for i
+
+		return builder.build();
+	} // of
+
+	/**
+	 * Creates an nxn identity matrix.
+	 * @param n dimension of identity
+	 * @return the identity matrix
+	 */
+	public static ImmutableMatrix identity(int n) {
+		Builder builder = new Builder(n, n);
+
+		for (int i = 0; i < n; i++) {
+			builder.set(i, i, Fraction.valueOf(1));
+		} // for i
+
+		return builder.build();
+	} // identity
+
+	/**
+	 * Gets the number of rows.
+	 * @return number of rows
+	 */
+	public int numRows() {
+		return rows.length;
+	} // numRows
+
+	/**
+	 * Gets the number of columns.
+	 * @return number of columns
+	 */
+	public int numCols() {
+		return cols;
+	} // numCols
+
+	/**
+	 * Gets a fraction at the given location.
+	 * @param row row location
+	 * @param col column location
+	 * @return the fraction in the given location
+	 */
+	public Fraction getFrac(int row, int col) {
+		if (col < 0 || col >= cols) {
+			throw new IndexOutOfBoundsException("column " + col + " is outside a matrix with " + cols + " columns");
+		} // if
+		return rows[row][col];
+	} // getFrac
+
+	/**
+	 * Creates a matrix with one entry changed. Only the changed row is copied.
+	 * @param row row location
+	 * @param col column location
+	 * @param f new value of the entry
+	 * @return a new matrix
+	 */
+	public ImmutableMatrix withFrac(int row, int col, Fraction f) {
+		Fraction [][] output = rows.clone();
+		output[row] = rows[row].clone();
+		output[row][col] = f;
+		return new ImmutableMatrix(output, cols);
+	} // withFrac
+
+	/**
+	 * Creates a matrix with two rows swapped. No entries are copied.
+	 * @param row1 first row
+	 * @param row2 second row
+	 * @return a new matrix
+	 */
+	public ImmutableMatrix swapRows(int row1, int row2) {
+		Fraction [][] output = rows.clone();
+		output[row1] = rows[row2];
+		output[row2] = rows[row1];
+		return new ImmutableMatrix(output, cols);
+	} // swapRows
+
+	/**
+	 * Creates a matrix with one row multiplied by a constant: Ri = coefficient * Ri. Only that row is copied.
+	 * @param row row to scale
+	 * @param coefficient value to multiply the row by
+	 * @return a new matrix
+	 */
+	public ImmutableMatrix scaleRow(int row, Fraction coefficient) {
+		Fraction [][] output = rows.clone();
+		output[row] = new Fraction[cols];
+		for (int j = 0; j < cols; j++) {
+			output[row][j] = rows[row][j].multiply(coefficient);
+		} // for j
+		return new ImmutableMatrix(output, cols);
+	} // scaleRow
+
+	/**
+	 * Creates a matrix with a multiple of one row added to another: Rtarget = Rtarget + coefficient * Rsource.
+	 * Only the target row is copied.
+	 * @param target row to change
+	 * @param source row to add
+	 * @param coefficient multiple of the source row to add
+	 * @return a new matrix
+	 */
+	public ImmutableMatrix addRowMultiple(int target, int source, Fraction coefficient) {
+		Fraction [][] output = rows.clone();
+		output[target] = new Fraction[cols];
+		for (int j = 0; j < cols; j++) {
+			output[target][j] = rows[target][j].add(coefficient.multiply(rows[source][j]));
+		} // for j
+		return new ImmutableMatrix(output, cols);
+	} // addRowMultiple
+
+	/**
+	 * Multiplies two matrices together.
+	 * @param other right multiplied matrix
+	 * @return a new matrix
+	 * @throws DimensionMismatchException if this matrix does not have as many columns as other has rows
+	 */
+	public ImmutableMatrix multiply(ImmutableMatrix other) {
+		return of(toMatrix().multiply(other.toMatrix()));
+	} // multiply
+
+	/**
+	 * Finds the transpose of this matrix.
+	 * @return a new matrix
+	 */
+	public ImmutableMatrix transpose() {
+		Fraction [][] output = new Fraction[cols][rows.length];
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < cols; j++) {
+				output[j][i] = rows[i][j];
+			} // for j
+		} // for i
+
+		return new ImmutableMatrix(output, rows.length);
+	} // transpose
+
+	/**
+	 * Finds the Row Echelon Form of this matrix.
+	 * @return a new matrix in REF
+	 */
+	public ImmutableMatrix toREF() {
+		return of(toMatrix().convertToREF());
+	} // toREF
+
+	/**
+	 * Finds the Reduced Row Echelon Form of this matrix.
+	 * @return a new matrix in RREF
+	 */
+	public ImmutableMatrix toReducedREF() {
+		return of(toMatrix().convertToReducedREF());
+	} // toReducedREF
+
+	/**
+	 * Finds the inverse of this matrix.
+	 * @return a new matrix
+	 * @throws DimensionMismatchException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public ImmutableMatrix inverse() {
+		return of(toMatrix().findInverse());
+	} // inverse
+
+	/**
+	 * Solves AX = B for X, one column of B at a time.
+	 * @param b right hand sides, one per column
+	 * @return a new matrix holding the solutions
+	 * @throws DimensionMismatchException if this matrix is not square or b does not have as many rows
+	 * @throws SingularMatrixException if this matrix is singular
+	 */
+	public ImmutableMatrix solve(ImmutableMatrix b) {
+		return of(toMatrix().solve(b.toMatrix()));
+	} // solve
+
+	/**
+	 * Finds the determinate of this matrix. The result is saved.
+	 * @return the determinate
+	 * @throws DimensionMismatchException if the matrix is not square
+	 */
+	public Fraction det() {
+		Fraction output = det;
+		if (output == null) {
+			output = toMatrix().det();
+			det = output;
+		} // if
+		return output;
+	} // det
+
+	/**
+	 * Finds the rank of this matrix. The result is saved.
+	 * @return rank of the matrix
+	 */
+	public int rank() {
+		int output = rank;
+		if (output < 0) {
+			output = toMatrix().rank();
+			rank = output;
+		} // if
+		return output;
+	} // rank
+
+	/**
+	 * Copies this matrix into a new mutable matrix.
+	 * @return a matrix with the same entries
+	 */
+	public Matrix toMatrix() {
+		return new Matrix(MatrixStorage.create(rows));
+	} // toMatrix
+
+	/**
+	 * Creates a builder that starts with the entries of this matrix. The rows are shared until the builder writes them.
+	 * @return a new builder
+	 */
+	public Builder toBuilder() {
+		return new Builder(rows.clone(), cols);
+	} // toBuilder
+
+	/**
+	 * Determines if two matrices have the same size and the same entries.
+	 * @param o object to compare to
+	 * @return true if o is an equal matrix, false otherwise
+	 */
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		} else if (!(o instanceof ImmutableMatrix)) {
+			return false;
+		} // else if
+
+		ImmutableMatrix other = (ImmutableMatrix)o;
+		if (rows.length != other.rows.length || cols != other.cols) {
+			return false;
+		} // if
+
+		for (int i = 0; i < rows.length; i++) {
+			if (rows[i] == other.rows[i]) {
+				continue;	// shared row
+			} // if
+			for (int j = 0; j < cols; j++) {
+				if (!rows[i][j].subtract(other.rows[i][j]).isZero()) {
+					return false;
+				} // if
+			} // for j
+		} // for i
+
+		return true;
+	} // equals
+
+	/**
+	 * Hashes the entries. Fractions are always in lowest terms, so equal matrices hash the same.
+	 * @return hash code of the matrix
+	 */
+	public int hashCode() {
+		int output = 31 * rows.length + cols;
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < cols; j++) {
+				Fraction f = rows[i][j];
+				output = 31 * output + (f.isBig()? f.getBigNumerator().hashCode() : Long.hashCode(f.getNumerator()));
+				output = 31 * output + (f.isBig()? f.getBigDenominator().hashCode() : Long.hashCode(f.getDenominator()));
+			} // for j
+		} // for i
+
+		return output;
+	} // hashCode
+
+	/**
+	 * Converts the matrix into a string.
+	 * @return string representation of the matrix
+	 */
+	public String toString() {
+		return toMatrix().toString();
+	} // toString
+
+	/**
+	 * Builds an immutable matrix. Entries start as 0. Not thread-safe; each thread should use its own builder.
+	 * Building does not copy the entries: the built matrix takes the rows, and the builder copies a row only
+	 * the first time it writes it afterwards, so a builder can keep being changed and built cheaply.
+	 */
+	public static final class Builder {
+		private final Fraction [][] rows;
+		private final int cols;
+		private final boolean [] shared;	// rows that a built matrix may be using, copied before they are written
+
+		/**
+		 * Constructor.
+		 * @param rows number of rows
+		 * @param cols number of columns
+		 * @throws IllegalArgumentException if either dimension is less than 1
+		 */
+		public Builder(int rows, int cols) {
+			if (rows < 1 || cols < 1) {
+				throw new IllegalArgumentException("cannot build a " + rows + "x" + cols + " matrix");
+			} // if
+			this.rows = new Fraction[rows][cols];
+			this.cols = cols;
+			shared = new boolean[rows];
+			Fraction zero = Fraction.valueOf(0);
+
+			for (int i = 0; i < rows; i++) {
+				Arrays.fill(this.rows[i], zero);
+			} // for i
+		} // Builder
+
+		/**
+		 * Constructor. Starts from rows that are all shared with a built matrix.
+		 * @param rows row references, not the entries
+		 * @param cols number of columns
+		 */
+		private Builder(Fraction [][] rows, int cols) {
+			this.rows = rows;
+			this.cols = cols;
+			shared = new boolean[rows.length];
+			Arrays.fill(shared, true);
+		} // Builder
+
+		/**
+		 * Sets an entry.
+		 * @param row row location
+		 * @param col column location
+		 * @param f new value of the entry; null is stored as 0
+		 * @return this builder
+		 */
+		public Builder set(int row, int col, Fraction f) {
+			if (col < 0 || col >= cols) {
+				throw new IndexOutOfBoundsException("column " + col + " is outside a matrix with " + cols + " columns");
+			} // if
+			own(row)[col] = (f != null)? f : Fraction.valueOf(0);
+			return this;
+		} // set
+
+		/**
+		 * Sets a whole row.
+		 * @param row row location
+		 * @param values new entries of the row; null entries are stored as 0
+		 * @return this builder
+		 * @throws IllegalArgumentException if values does not have one entry per column
+		 */
+		public Builder setRow(int row, Fraction [] values) {
+			if (values.length != cols) {
+				throw new IllegalArgumentException("row " + row + " has " + values.length + " entries, not " + cols);
+			} // if
+			Fraction [] target = new Fraction[cols];
+			for (int j = 0; j < cols; j++) {
+				target[j] = (values[j] != null)? values[j] : Fraction.valueOf(0);
+			} // for j
+			rows[row] = target;
+			shared[row] = false;
+			return this;
+		} // setRow
+
+		/**
+		 * Builds the matrix. Copies only the row references.
+		 * @return a matrix holding the current entries
+		 */
+		public ImmutableMatrix build() {
+			Arrays.fill(shared, true);
+			return new ImmutableMatrix(rows.clone(), cols);
+		} // build
+
+		/**
+		 * Gets a row that only this builder uses, copying it if a built matrix may be using it.
+		 * @param row row location
+		 * @return the row's entries
+		 */
+		private Fraction [] own(int row) {
+			if (shared[row]) {
+				rows[row] = rows[row].clone();
+				shared[row] = false;
+			} // if
+			return rows[row];
+		} // own
+
+	} // Builder
+
+} // ImmutableMatrix
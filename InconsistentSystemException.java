@@ -0,0 +1,20 @@
+/**
+ * Thrown when a system of equations does not have exactly one solution.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+public class InconsistentSystemException extends MatrixException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor.
+	 * @param message description of the problem
+	 */
+	public InconsistentSystemException(String message) {
+		super(message);
+	} // InconsistentSystemException
+
+} // InconsistentSystemException
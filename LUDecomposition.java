@@ -0,0 +1,256 @@
+/**
+ * LU decomposition of a square matrix with row pivoting, PA = LU. Computed in place (Doolittle):
+ * U is stored on and above the diagonal and the multipliers of the unit lower triangular L below it,
+ * so the whole decomposition takes one n x n storage plus the row permutation.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class LUDecomposition {
+	private final int n;
+	private final MatrixStorage lu;
+	private final int [] permutation;	// row i of PA is row permutation[i] of A
+	private int sign = 1;
+	private boolean singular = false;
+
+	/**
+	 * Constructor. Decomposes a copy of the given matrix; the matrix itself is not changed.
+	 * @param matrix square matrix to decompose
+	 */
+	LUDecomposition(Matrix matrix) {
+		this(matrix, null);
+	} // LUDecomposition
+
+	/**
+	 * Constructor. Decomposes a copy of the given matrix, reporting each step. The matrix given to the
+	 * listener holds U on and above the diagonal and the multipliers of L below it.
+	 * @param matrix square matrix to decompose
+	 * @param listener receives each step, or null for no tracing
+	 */
+	LUDecomposition(Matrix matrix, StepListener listener) {
+		n = matrix.numRows();
+		lu = matrix.m.copy();
+		permutation = new int[n];
+		Matrix working = (listener != null)? new Matrix(lu) : null;
+
+		for (int i = 0; i < n; i++) {
+			permutation[i] = i;
+		} // for i
+
+		// tiled storage is decomposed a panel at a time, so the tiles are not streamed from disk once per pivot
+		if (lu instanceof TileStorage && listener == null) {
+			sign = (((TileStorage)lu).eliminate(true, permutation) % 2 == 0)? 1 : -1;
+			for (int k = 0; k < n && !singular; k++) {
+				singular = lu.isZero(k, k);
+			} // for k
+			return;
+		} // if
+
+		for (int k = 0; k < n; k++) {
+			// let the storage choose a row with a non-zero entry in this column as the pivot
+			int pivot = lu.pivotRow(k, k);
+
+			if (pivot == n) {
+				singular = true;
+				continue;
+			} else if (pivot != k) {
+				lu.swapRows(pivot, k);
+				int temp = permutation[pivot];
+				permutation[pivot] = permutation[k];
+				permutation[k] = temp;
+				sign = -sign;
+				if (listener != null) {
+					listener.swap(working, pivot, k);
+				} // if
+			} // else if
+
+			Fraction pivotValue = lu.get(k, k);
+			for (int i = k + 1; i < n; i++) {
+				if (lu.isZero(i, k)) {
+					continue;
+				} // if
+
+				// store the multiplier where the cancelled entry was
+				Fraction multiplier = lu.get(i, k).divide(pivotValue);
+				lu.set(i, k, multiplier);
+				lu.addRowMultiple(i, k, multiplier.negate(), k + 1);
+				if (listener != null) {
+					listener.cancel(working, i, k, k, multiplier);
+				} // if
+			} // for i
+		} // for k
+	} // LUDecomposition
+
+	/**
+	 * Frees the working copy's resources outside the heap, such as the scratch file of tiled storage.
+	 * The decomposition cannot be used afterwards.
+	 */
+	void release() {
+		lu.release();
+	} // release
+
+	/**
+	 * Determines if the matrix is singular, meaning U has a 0 on its diagonal.
+	 * @return true if the matrix is singular, false otherwise
+	 */
+	public boolean isSingular() {
+		return singular;
+	} // isSingular
+
+	/**
+	 * Gets the determinant: the sign of the permutation times the product of the diagonal of U.
+	 * @return determinant of the matrix
+	 */
+	public Fraction det() {
+		if (singular) {
+			return Fraction.valueOf(0);
+		} // if
+
+		Fraction output = Fraction.valueOf(sign);
+		for (int i = 0; i < n; i++) {
+			output = output.multiply(lu.get(i, i));
+		} // for i
+		return output;
+	} // det
+
+	/**
+	 * Gets the unit lower triangular matrix L.
+	 * @return L
+	 */
+	public Matrix getL() {
+		PackedStorage output = new PackedStorage(n, n);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < i; j++) {
+				output.set(i, j, lu.get(i, j));
+			} // for j
+			output.set(i, i, Fraction.valueOf(1));
+		} // for i
+
+		return new Matrix(output);
+	} // getL
+
+	/**
+	 * Gets the upper triangular matrix U.
+	 * @return U
+	 */
+	public Matrix getU() {
+		PackedStorage output = new PackedStorage(n, n);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				output.set(i, j, lu.get(i, j));
+			} // for j
+		} // for i
+
+		return new Matrix(output);
+	} // getU
+
+	/**
+	 * Gets the permutation matrix P, where PA = LU.
+	 * @return P
+	 */
+	public Matrix getP() {
+		PackedStorage output = new PackedStorage(n, n);
+
+		for (int i = 0; i < n; i++) {
+			output.set(i, permutation[i], Fraction.valueOf(1));
+		} // for i
+
+		return new Matrix(output);
+	} // getP
+
+	/**
+	 * Solves AX = B for every column of B by forward substitution with L and back substitution with U,
+	 * which takes O(n^2) per column since the decomposition is already done.
+	 * @param b right hand sides, one per column, with n rows
+	 * @param parallel true to solve blocks of columns on the common fork-join pool; ignored, and the columns
+	 *                 solved one after another, if the decomposition or b is in storage that only one thread
+	 *                 may read at a time
+	 * @return X, with one solution per column
+	 */
+	Matrix solve(Matrix b, boolean parallel) {
+		int columns = b.numCols();
+		PackedStorage output = new PackedStorage(n, columns);
+		int threads = ForkJoinPool.getCommonPoolParallelism();
+
+		if (!parallel || threads < 2 || columns < 2 || !lu.concurrentReads() || !b.m.concurrentReads()) {
+			solve(b.m, output, 0, columns);
+		} else {
+			// a few blocks per thread so uneven columns still balance
+			int block = Math.max(1, (columns + 4 * threads - 1) / (4 * threads));
+			IntStream.range(0, (columns + block - 1) / block).parallel()
+					.forEach(k -> solve(b.m, output, k * block, Math.min((k + 1) * block, columns)));
+		} // else
+
+		return new Matrix(output);
+	} // solve
+
+	/**
+	 * Solves AX = B for a block of columns of B. Different blocks may be solved by different threads.
+	 * @param b right hand sides
+	 * @param x storage the solutions are written to
+	 * @param colStart first column to solve
+	 * @param colEnd one past the last column
+	 */
+	private void solve(MatrixStorage b, MatrixStorage x, int colStart, int colEnd) {
+		Fraction [] y = new Fraction[n];
+		FractionAccumulator sum = new FractionAccumulator();
+
+		for (int col = colStart; col < colEnd; col++) {
+			// Ly = Pb: row i of Pb is row permutation[i] of b
+			for (int i = 0; i < n; i++) {
+				sum.reset();
+				for (int j = 0; j < i; j++) {
+					if (!lu.isZero(i, j)) {
+						sum.multiplyAdd(lu.get(i, j), y[j]);
+					} // if
+				} // for j
+				y[i] = b.get(permutation[i], col).subtract(sum.toFraction());
+			} // for i
+
+			// Ux = y, from the bottom up
+			for (int i = n - 1; i >= 0; i--) {
+				sum.reset();
+				for (int j = i + 1; j < n; j++) {
+					if (!lu.isZero(i, j)) {
+						sum.multiplyAdd(lu.get(i, j), y[j]);
+					} // if
+				} // for j
+				y[i] = y[i].subtract(sum.toFraction()).divide(lu.get(i, i));
+			} // for i
+
+			for (int i = 0; i < n; i++) {
+				x.set(i, col, y[i]);
+			} // for i
+		} // for col
+	} // solve
+
+	/**
+	 * Gets PA as a view of A, with the rows of A in the order of the pivots, without multiplying by P.
+	 * Release the view with releaseView when done with it; otherwise a change to A copies it.
+	 * @param matrix A, the matrix that was decomposed
+	 * @return PA
+	 * @throws DimensionMismatchException if the matrix does not have n rows
+	 */
+	public Matrix permute(Matrix matrix) {
+		if (matrix.numRows() != n) {
+			throw new DimensionMismatchException("cannot permute the rows of a " + matrix.numRows() + "x" + matrix.numCols() + " matrix by a permutation of " + n + " rows");
+		} // if
+		return new Matrix(ViewStorage.permuted(matrix.m, permutation));
+	} // permute
+
+	/**
+	 * Gets the row permutation: row i of PA is row getPivot()[i] of A.
+	 * @return a copy of the permutation
+	 */
+	public int [] getPivot() {
+		return permutation.clone();
+	} // getPivot
+
+} // LUDecomposition
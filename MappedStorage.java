@@ -0,0 +1,151 @@
+/**
+ * Matrix storage that reads its entries straight from a memory-mapped file in the fixed-width layout of
+ * MatrixFile, so opening a matrix costs nothing until its entries are used, and pages the matrix never
+ * touches are never read from disk. The file is mapped read-only and is never changed: the first write
+ * copies the entries into packed storage, and every later read and write goes there. Each half of the file
+ * is mapped in segments of whole rows, at most 1 GB each, since one mapping cannot be larger than 2 GB.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.nio.LongBuffer;
+import java.util.Map;
+
+class MappedStorage extends MatrixStorage {
+	static final int SEGMENT = 1 << 27;	// most longs in one mapped segment
+
+	private final int rows;
+	private final int cols;
+	private final int rowsPerSegment;
+	private final LongBuffer [] numerators;		// row-major, mapped from the file, rowsPerSegment rows each
+	private final LongBuffer [] denominators;	// a denominator of 0 marks an entry kept in big
+	private final Map<Integer, Fraction> big;
+	private PackedStorage written = null;	// the entries once anything has been written
+
+	/**
+	 * Constructor.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param numerators mapped numerators, split into segments of rowsPerSegment(cols) rows
+	 * @param denominators mapped denominators, split the same way
+	 * @param big entries that do not fit in longs, by row-major index
+	 */
+	MappedStorage(int rows, int cols, LongBuffer [] numerators, LongBuffer [] denominators, Map<Integer, Fraction> big) {
+		this.rows = rows;
+		this.cols = cols;
+		rowsPerSegment = rowsPerSegment(cols);
+		this.numerators = numerators;
+		this.denominators = denominators;
+		this.big = big;
+	} // MappedStorage
+
+	/**
+	 * Gets the number of rows mapped in each segment.
+	 * @param cols number of columns
+	 * @return rows per segment
+	 */
+	static int rowsPerSegment(int cols) {
+		return Math.max(SEGMENT / cols, 1);
+	} // rowsPerSegment
+
+	int numRows() {
+		return rows;
+	} // numRows
+
+	int numCols() {
+		return cols;
+	} // numCols
+
+	Fraction get(int row, int col) {
+		if (written != null) {
+			return written.get(row, col);
+		} // if
+
+		int index = (row % rowsPerSegment) * cols + col;
+		long d = denominators[row / rowsPerSegment].get(index);
+		return (d == 0)? big.get(row * cols + col) : Fraction.reduced(numerators[row / rowsPerSegment].get(index), d);
+	} // get
+
+	boolean isZero(int row, int col) {
+		if (written != null) {
+			return written.isZero(row, col);
+		} // if
+
+		int index = (row % rowsPerSegment) * cols + col;
+		return (numerators[row / rowsPerSegment].get(index) == 0 && denominators[row / rowsPerSegment].get(index) != 0);
+	} // isZero
+
+	void set(int row, int col, Fraction f) {
+		modified();
+		packed().set(row, col, f);
+	} // set
+
+	void swapRows(int row1, int row2) {
+		modified();
+		packed().swapRows(row1, row2);
+	} // swapRows
+
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		modified();
+		packed().addRowMultiple(target, source, coefficient, fromCol);
+	} // addRowMultiple
+
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		modified();
+		packed().scaleRow(row, coefficient, fromCol);
+	} // scaleRow
+
+	/**
+	 * Copies the entries into packed storage, which is what the copy is for: the copy is about to be changed.
+	 */
+	MatrixStorage copy() {
+		return (written != null)? written.copy() : toPacked();
+	} // copy
+
+	/**
+	 * Multiplies with the packed kernels, which read the arrays directly. Copying the entries is O(n^2),
+	 * against O(n^3) for the product.
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		return ((written != null)? written : toPacked()).multiply(other);
+	} // multiply
+
+	/**
+	 * Gets the packed storage that writes go to, copying the mapped entries into it the first time.
+	 * @return the packed storage
+	 */
+	private PackedStorage packed() {
+		if (written == null) {
+			written = toPacked();
+		} // if
+		return written;
+	} // packed
+
+	/**
+	 * Copies the mapped entries into packed storage.
+	 * @return packed storage with the same entries
+	 */
+	private PackedStorage toPacked() {
+		long [] n = new long[rows * cols];
+		long [] d = new long[rows * cols];
+		for (int k = 0; k < numerators.length; k++) {
+			int start = k * rowsPerSegment * cols;
+			numerators[k].get(0, n, start, numerators[k].capacity());
+			denominators[k].get(0, d, start, denominators[k].capacity());
+		} // for k
+
+		// entries kept in big are marked 0/0 in the arrays; give them a valid placeholder before setting them
+		for (Integer index : big.keySet()) {
+			d[index] = 1;
+		} // for index
+		PackedStorage output = new PackedStorage(rows, cols, n, d);
+		for (Map.Entry<Integer, Fraction> entry : big.entrySet()) {
+			output.set(entry.getKey() / cols, entry.getKey() % cols, entry.getValue());
+		} // for entry
+
+		return output;
+	} // toPacked
+
+} // MappedStorage
@@ -7,37 +7,48 @@
  * @since 2017-04-21
  */
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 public class Matrix {
-	protected Fraction [][] m = null;
-	protected static boolean showSteps = false;
+	protected MatrixStorage m = null;
+	protected StepListener steps = null;	// traces the methods that are not given a listener; see changeShowSteps
 	protected boolean displayDoubles = false;
-	protected boolean calledRREF = false;
+	protected boolean fractionFree = false;
+	protected boolean modular = false;
+	protected LUDecomposition lu = null;
 	protected Matrix L = null;
 	protected Matrix U = null;
 	protected Matrix inverse = null;
-	protected Matrix T = null;
+	private int cacheModCount = 0;		// modCount of m when the cached results were computed
+	private int cachedRank = -1;
+	private Fraction cachedDet = null;
+	private int lModCount = 0;			// modCount of each cached matrix when it was returned, in case the caller changes it
+	private int uModCount = 0;
+	private int inverseModCount = 0;
 
 	/**
 	 * Default constructor.
 	 */
 	Matrix () {
-		m = new Fraction [2][2];
+		m = new PackedStorage(2, 2);
 	} // Matrix
 
 	/**
-	 * Constructor.
+	 * Constructor. Copies the array into sparse storage if it is large and mostly 0, packed storage otherwise;
+	 * null entries are stored as 0.
 	 * @param input 2D fraction array
 	 */
 	Matrix (Fraction [][] input) {
-		m = new Fraction [input.length][input[0].length];
+		m = MatrixStorage.create(input);
+	} // Matrix
 
-		for (int i = 0; i < input.length; i++) {
-			for (int j = 0; j < input[0].length; j++) {
-				m[i][j] = input[i][j];
-			} // for j
-		} // for i
+	/**
+	 * Constructor. Uses the given storage directly, without copying it.
+	 * @param storage storage holding the entries
+	 */
+	Matrix (MatrixStorage storage) {
+		m = storage;
 	} // Matrix
 
 	/**
@@ -45,261 +56,126 @@ public class Matrix {
 	 * @return matrix in REF
 	 */
 	public Matrix convertToREF() {
-		if (showSteps) {
-			System.out.println("Converting to REF:\n");
-		} // if
-		return convertToREFCalculations(this);
+		return convertToREF(steps);
 	} // convertToREF
 
 	/**
-	 * Recursive method that converts a matrix to Row Echelon Form.
-	 * @param matrix
+	 * Convert matrix to Row Echelon Form, reporting each step.
+	 * @param listener receives each step, or null for no tracing
 	 * @return matrix in REF
 	 */
-	private Matrix convertToREFCalculations(Matrix matrix) {
-		if ((matrix.numRows() == 0 || matrix.numCols() == 0) || matrix.isZero() || matrix.inREF()) {
-			if (showSteps) {
-				System.out.println("No changes can be made to this matrix; converting is complete.\n");
-			} // if
-			return matrix;
-		} else {
-			int col = 0;
-			int startingRow = 0;
-			int startingCol = 0;
-
-			// ignore 0 columns
-			while (matrix.isZeroCol(col)) {
-				col++;
-			} // while
-
-			startingCol = col;
-
-			// ensure the first row starts with a non-zero number
-			// if the matrix is being converted to RREF, 0 rows can be ignored
-			if (matrix.getFrac(0, col).getNumerator() == 0 && !calledRREF) {
-				for (int i = 1; i < matrix.numRows(); i++) {
-					if (matrix.getFrac(i, col).getNumerator() != 0) {
-						matrix.swapRows(0, i);
-						break;
-					} // if
-				} // for
-				if (showSteps) {
-					System.out.println("Swap rows:");
-					System.out.println(matrix);
-				} // if
-			} else if (matrix.getFrac(0, col).getNumerator() == 0 && calledRREF) {
-				while (startingRow < matrix.numRows() && matrix.getFrac(startingRow, col).getNumerator() == 0) {
-					startingRow++;
-					startingCol++;
-				} // while
-			} // else if
-
-			if (showSteps) {
-				System.out.println("Begin cancelling leading entries:");
-			} // if
-
-			// cancels the leading entry of all rows except the first
-			for (int i = startingRow + 1; i < matrix.numRows(); i++) {
-				matrix.cancelLeadingEntry(i, col, startingRow, startingCol);
-			} // for i
-
-			if (showSteps) {
-				System.out.println("Converted rows:");
-				System.out.println(matrix);
-			} // if
-
-			// copy converted matrix to a (m-1)(n-1) sized matrix
-			Matrix temp = matrix.subMatrix(1, matrix.numRows() - 1, 1, matrix.numCols() - 1);
-
-			if (showSteps) {
-				System.out.println("Working on new sub-matrix:");
-				System.out.println(temp);
-			} // if
-
-			// convert the smaller matrix to REF and merge with original
-			return insertMatrix(matrix, convertToREFCalculations(temp));
-		} // else
-	} // convertToREFCalculations
-
-	/**
-	 * Cancels the leading entry in a row by adding a multiple of a different row.
-	 * @param row the row to cancel
-	 * @param col the column location of the first entry in the row
-	 * @param cofRow the row location of the entry that will be used to create the coefficient
-	 * @param cofCol the col location of the entry that will be used to create the coefficient
-	 */
-	private void cancelLeadingEntry(int row, int col, int cofRow, int cofCol) {
-		Fraction negative = new Fraction(-1, 1);
-
-		// m[row][cofCol] / m[cofRow][cofCol]
-		Fraction coefficient = new Fraction((m[row][cofCol].getNumerator() * m[cofRow][cofCol].getDenominator()), (m[row][cofCol].getDenominator() * m[cofRow][cofCol].getNumerator()));
-
-		if (showSteps) {
-			System.out.println("Calculating coefficient: " + (m[row][cofCol].getNumerator() + "*" + m[cofRow][cofCol].getDenominator()) + "/" + (m[row][cofCol].getDenominator() + "*" + m[cofRow][cofCol].getNumerator()) + " = " + coefficient);
+	public Matrix convertToREF(StepListener listener) {
+		if (listener != null) {
+			listener.note("Converting to REF:", this);
 		} // if
-
-		// Ri = Ri - (m[i][j]/m[cofRow][j])(Coefficient Row)
-		for (int j = col; j < m[0].length; j++) {
-			m[row][j] = m[row][j].add((negative.multiply(coefficient)).multiply(m[cofRow][j]));
-			if (showSteps) {
-				System.out.print("Row " + row + ", Col " + j + ": " + m[row][j] + " - (" + coefficient + ")(" + m[cofRow][j] + ") = ");
-				System.out.println(m[row][j]);
+		if (fractionFree) {
+			new BareissElimination(this, listener).copyInto(this);
+			if (listener != null) {
+				listener.note("Fraction-free elimination complete:", this);
 			} // if
-		} // for j
-		if (showSteps) {
-			System.out.println();
-		} // if
-	} // cancelLeadingEntry
-
-	/**
-	 * Convert matrix to Row Echelon Form and save each step as an elementary matrix.
-	 * This method serves as a driver for the actual calculations.
-	 * @return matrix in REF
-	 */
-	private void convertToREFSaveCof(ArrayList<ElementaryMatrix> steps) {
-		if (showSteps) {
-			System.out.println("Converting to REF:\n");
+			return this;
 		} // if
-		convertToREFCalculationsSaveCof(this, steps);
+		return convertToREFCalculations(listener);
 	} // convertToREF
 
 	/**
-	 * Recursive method that converts a matrix to Row Echelon Form while saving each step as an elementary matrix.
-	 * @param matrix
+	 * Converts the matrix to Row Echelon Form in place. Works down the matrix one pivot at a time,
+	 * so only the rows below and columns right of the current pivot are ever touched.
+	 * @param listener receives each step, or null for no tracing
 	 * @return matrix in REF
 	 */
-	private Matrix convertToREFCalculationsSaveCof(Matrix matrix, ArrayList<ElementaryMatrix> steps) {
-		if ((matrix.numRows() == 0 || matrix.numCols() == 0) || matrix.isZero() || matrix.inREF()) {
-			if (showSteps) {
-				System.out.println("No changes can be made to this matrix; converting is complete.\n");
-			} // if
-			return matrix;
-		} else {
-			int col = 0;
-			int startingRow = 0;
-			int startingCol = 0;
-
-			// ignore 0 columns
-			while (matrix.isZeroCol(col)) {
-				col++;
-			} // while
-
-			startingCol = col;
-
-			// ensure the first row starts with a non-zero number
-			// if the matrix is being converted to RREF, 0 rows can be ignored
-			if (matrix.getFrac(0, col).getNumerator() == 0 && !calledRREF) {
-				for (int i = 1; i < matrix.numRows(); i++) {
-					if (matrix.getFrac(i, col).getNumerator() != 0) {
-						matrix.swapRows(0, i);
-						break;
-					} // if
-				} // for
-				if (showSteps) {
-					System.out.println("Swap rows:");
-					System.out.println(matrix);
-				} // if
-			} else if (matrix.getFrac(0, col).getNumerator() == 0 && calledRREF) {
-				while (startingRow < matrix.numRows() && matrix.getFrac(startingRow, col).getNumerator() == 0) {
-					startingRow++;
-					startingCol++;
-				} // while
-			} // else if
+	private Matrix convertToREFCalculations(StepListener listener) {
+		int pivotRow = 0;
 
-			if (showSteps) {
-				System.out.println("Begin cancelling leading entries:");
-			} // if
+		for (int col = 0; col < m.numCols() && pivotRow < m.numRows(); col++) {
+			// find a row at or below the pivot row with a non-zero entry; ignore 0 columns
+			int row = m.pivotRow(col, pivotRow);
 
-			// cancels the leading entry of all rows except the first
-			for (int i = startingRow + 1; i < matrix.numRows(); i++) {
-				matrix.cancelLeadingEntrySaveCof(i, col, startingRow, startingCol, steps);
-			} // for i
+			if (row == m.numRows()) {
+				continue;
+			} // if
 
-			if (showSteps) {
-				System.out.println("Converted rows:");
-				System.out.println(matrix);
+			// ensure the pivot row starts with a non-zero number
+			if (row != pivotRow) {
+				swapRows(pivotRow, row);
+				if (listener != null) {
+					listener.swap(this, pivotRow, row);
+				} // if
 			} // if
 
-			// copy converted matrix to a (m-1)(n-1) sized matrix
-			Matrix temp = matrix.subMatrix(1, matrix.numRows() - 1, 1, matrix.numCols() - 1);
+			// cancels the leading entry of all rows below the pivot
+			for (int i = pivotRow + 1; i < m.numRows(); i++) {
+				if (!m.isZero(i, col)) {
+					cancelLeadingEntry(i, col, pivotRow, col, listener);
+				} // if
+			} // for i
 
-			if (showSteps) {
-				System.out.println("Working on new sub-matrix:");
-				System.out.println(temp);
-			} // if
+			pivotRow++;
+		} // for col
 
-			// convert the smaller matrix to REF and merge with original
-			return insertMatrix(matrix, convertToREFCalculationsSaveCof(temp, steps));
-		} // else
-	} // convertToREFCalculationsSaveCof
+		if (listener != null) {
+			listener.note("No changes can be made to this matrix; converting is complete.", null);
+		} // if
+		return this;
+	} // convertToREFCalculations
 
 	/**
 	 * Cancels the leading entry in a row by adding a multiple of a different row.
-	 * Saves the operation as an elementary matrix.
 	 * @param row the row to cancel
 	 * @param col the column location of the first entry in the row
 	 * @param cofRow the row location of the entry that will be used to create the coefficient
 	 * @param cofCol the col location of the entry that will be used to create the coefficient
+	 * @param listener receives the step, or null for no tracing
 	 */
-	private void cancelLeadingEntrySaveCof(int row, int col, int cofRow, int cofCol, ArrayList<ElementaryMatrix> steps) {
-		Fraction negative = new Fraction(-1);
-
+	private void cancelLeadingEntry(int row, int col, int cofRow, int cofCol, StepListener listener) {
 		// m[row][cofCol] / m[cofRow][cofCol]
-		Fraction coefficient = new Fraction((m[row][cofCol].getNumerator() * m[cofRow][cofCol].getDenominator()), (m[row][cofCol].getDenominator() * m[cofRow][cofCol].getNumerator()));
-
-		// save the coefficient
-		ElementaryMatrix temp = new ElementaryMatrix();
-		temp = createIdentity(m.length);
-		temp.setFrac(row, col, negative.multiply(coefficient));
-		steps.add(temp);
-
-		if (showSteps) {
-			System.out.println("Calculating coefficient: " + (m[row][cofCol].getNumerator() + "*" + m[cofRow][cofCol].getDenominator()) + "/" + (m[row][cofCol].getDenominator() + "*" + m[cofRow][cofCol].getNumerator()) + " = " + coefficient);
-		} // if
+		Fraction coefficient = m.get(row, cofCol).divide(m.get(cofRow, cofCol));
 
 		// Ri = Ri - (m[i][j]/m[cofRow][j])(Coefficient Row)
-		for (int j = col; j < m[0].length; j++) {
-			m[row][j] = m[row][j].add((negative.multiply(coefficient)).multiply(m[cofRow][j]));
-			if (showSteps) {
-				System.out.print("Row " + row + ", Col " + j + ": " + m[row][j] + " - (" + coefficient + ")(" + m[cofRow][j] + ") = ");
-				System.out.println(m[row][j]);
-			} // if
-		} // for j
-		if (showSteps) {
-			System.out.println();
+		m.addRowMultiple(row, cofRow, coefficient.negate(), col);
+		if (listener != null) {
+			listener.cancel(this, row, cofRow, cofCol, coefficient);
 		} // if
-	} // cancelLeadingEntrySaveCof
+	} // cancelLeadingEntry
 
 	/**
 	 * Converts a matrix to Reduced Row Echelon Form.
 	 * @return matrix in RREF
 	 */
 	public Matrix convertToReducedREF() {
-		calledRREF = true;
-		if (showSteps) {
-			System.out.println("Converting to Reduced Row Echelon Form:\n");
-		} // if
+		return convertToReducedREF(steps);
+	} // convertToReducedREF
 
-		if (!this.inREF()) {
-			this.convertToREF();
+	/**
+	 * Converts a matrix to Reduced Row Echelon Form, reporting each step.
+	 * @param listener receives each step, or null for no tracing
+	 * @return matrix in RREF
+	 */
+	public Matrix convertToReducedREF(StepListener listener) {
+		if (listener != null) {
+			listener.note("Converting to Reduced Row Echelon Form:", null);
 		} // if
-		this.rotateMatrix();
-		this.convertToREF();
-		this.rotateMatrix();
-		makeLeadingEntriesOne();
-
-		// ensures all columns with a leading 1 have no other values
-		for (int i = 0; i < m.length && i < m[0].length; i++) {
-			if (m[i][i].getDouble() == 1) {
-				for (int j = i - 1; j >= 0; j--) {
-					if (m[j][i].getDouble() != 0) {
-						cancelLeadingEntry(j, i, i, i);
-					} // if
-				} // for j
+
+		this.convertToREF(listener);
+		makeLeadingEntriesOne(listener);
+
+		// working up from the bottom, clear the entries above each leading 1
+		for (int i = m.numRows() - 1; i >= 0; i--) {
+			int col = m.leadingColumn(i);
+			if (col == m.numCols()) {
+				continue;
 			} // if
+
+			for (int j = i - 1; j >= 0; j--) {
+				if (!m.isZero(j, col)) {
+					cancelLeadingEntry(j, col, i, col, listener);
+				} // if
+			} // for j
 		} // for i
 
-		calledRREF = false;
+		if (listener != null) {
+			listener.note("Reduced Row Echelon Form:", this);
+		} // if
 		return this;
 	} // convertToReducedREF
 
@@ -307,123 +183,192 @@ public class Matrix {
 	 * Multiplies two matrices together. This matrix is multiplied on the left, the given matrix is multiplied on the right.
 	 * @param m right multiplied matrix
 	 * @return A new matrix
+	 * @throws DimensionMismatchException if this matrix does not have as many columns as m has rows
 	 */
 	public Matrix multiply(Matrix m) {
-		Matrix output = new Matrix(new Fraction[this.numRows()][m.numCols()]);
+		return multiply(m, steps);
+	} // multiply
 
-		if (this.numCols() != m.numRows()) {
-			System.out.println("error: cannot multiply a " + this.numRows() + "x" + this.numCols() + " matrix by a " + m.numRows() + "x" + m.numCols() + " matrix");
-			System.exit(0);
+	/**
+	 * Multiplies two matrices together, reporting the factors and the product.
+	 * @param m right multiplied matrix
+	 * @param listener receives the factors and the product, or null for no tracing
+	 * @return A new matrix
+	 * @throws DimensionMismatchException if this matrix does not have as many columns as m has rows
+	 */
+	public Matrix multiply(Matrix m, StepListener listener) {
+		if (!this.canMultiply(m)) {
+			throw new DimensionMismatchException("cannot multiply a " + this.numRows() + "x" + this.numCols() + " matrix by a " + m.numRows() + "x" + m.numCols() + " matrix");
 		} // if
 		
-		if (showSteps) {
-			System.out.println("Multiply:\n" + this + "\nby\n" + m);
-			System.out.println();
+		if (listener != null) {
+			listener.note("Multiply:\n" + this + "\nby", m);
 		} // if
-		
-		for (int i = 0; i < output.numRows(); i++) {
-			for (int j = 0; j < output.numCols(); j++) {
-				output.setFrac(i, j, dotProduct(this, i, m, j));
-				if (showSteps) {
-					System.out.println("Dot product of row " + i + " and column " + j + ": " + output.getFrac(i, j));
-				} // if
-			} // for j
-		} // for i
 
+		// the storage chooses the algorithm: tiled and threaded for packed, row by row for sparse;
+		// a view on the right is copied first, so the kernels read real storage
+		MatrixStorage right = (m.m instanceof ViewStorage)? m.m.copy() : m.m;
+		Matrix output = new Matrix(this.m.multiply(right));
+
+		if (listener != null) {
+			listener.note("Product:", output);
+		} // if
 		return output;
 	} // multiply
 
 	/**
-	 * Calculates the LU decomposition of the matrix.
+	 * Calculates the LU decomposition of the matrix, PA = LU, in a single elimination pass.
+	 * @throws DimensionMismatchException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular
 	 */
 	public void findLUDecomposition() {
-		if (!this.isSquare()) {
-			System.out.println("error: LU decomposition must be performed on a square matrix");
-			System.exit(0);
-		} else if (this.rank() != this.numRows()) {
-			System.out.println("error: LU decomposition must be performed on a matrix with rank = n");
-			System.exit(0);
-		} else {
-			L = createIdentity(this.numRows());
-			U = this.copy();
-			ArrayList<ElementaryMatrix> steps = new ArrayList<ElementaryMatrix>();
-			
-			if (showSteps) {
-				System.out.println("Finding LU decomposition of:\n" + this);
-			} // if
+		findLUDecomposition(steps);
+	} // findLUDecomposition
 
-			// calculates U, saving the elementary matrices used
-			U.convertToREFSaveCof(steps);
-			
-			if (showSteps) {
-				System.out.println("Finding U while saving row operations as elementary matrices:\n" + U);
-				System.out.println("Inverting elementary matrices");
-			} // if
+	/**
+	 * Calculates the LU decomposition of the matrix, PA = LU, reporting each step.
+	 * If the decomposition is already saved, only the result is reported.
+	 * @param listener receives each step, or null for no tracing
+	 * @throws DimensionMismatchException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public void findLUDecomposition(StepListener listener) {
+		if (!this.squareShape()) {
+			throw new DimensionMismatchException("LU decomposition must be performed on a square matrix, not " + this.numRows() + "x" + this.numCols());
+		} // if
 
-			// invert the elementary matrices
-			for (int i = 0; i < steps.size(); i++) {
-				steps.get(i).invert();
-			} // for i
+		if (listener != null) {
+			listener.note("Finding LU decomposition of:", this);
+		} // if
 
-			// calculate L
-			for (int i = steps.size() - 1; i >= 0; i--) {
-				L = L.multiply(steps.get(i));
-			} // for
-			
-			if (showSteps) {
-				System.out.println("Multiplying elementary matrices together to get L:\n" + L);
-			} // if
-		} // else
+		validateCache();
+		if (lu == null) {
+			lu = new LUDecomposition(this, listener);
+		} // if
+		if (lu.isSingular()) {
+			throw new SingularMatrixException("LU decomposition must be performed on a matrix with rank = n");
+		} // if
+
+		L = lu.getL();
+		U = lu.getU();
+		lModCount = L.m.modCount();
+		uModCount = U.m.modCount();
+
+		if (listener != null) {
+			listener.note("P:", lu.getP());
+			listener.note("L:", L);
+			listener.note("U:", U);
+		} // if
 	} // findLUDecomposition
 
 	/**
-	 * Finds the determinate of a matrix. Uses LU decomposition and the fact that det(AB) = (detA)(detB).
-	 * If the matrix has zero rows, automatically returns 0.
+	 * Solves AX = B, where A is this matrix, for every column of B at once. The LU decomposition of A is
+	 * found once and saved until the matrix changes, so each right hand side only costs a forward and
+	 * back substitution.
+	 * @param b right hand sides, one per column, with as many rows as this matrix
+	 * @return X, with the solution for each column of B in the same column
+	 * @throws DimensionMismatchException if this matrix is not square or B has a different number of rows
+	 * @throws SingularMatrixException if this matrix is singular
+	 */
+	public Matrix solve(Matrix b) {
+		return solve(b, false);
+	} // solve
+
+	/**
+	 * Solves AX = B, where A is this matrix, for every column of B at once.
+	 * @param b right hand sides, one per column, with as many rows as this matrix
+	 * @param parallel true to split the columns of B across threads
+	 * @return X, with the solution for each column of B in the same column
+	 * @throws DimensionMismatchException if this matrix is not square or B has a different number of rows
+	 * @throws SingularMatrixException if this matrix is singular
+	 */
+	public Matrix solve(Matrix b, boolean parallel) {
+		if (!this.canSolve(b)) {
+			throw new DimensionMismatchException("cannot solve a " + this.numRows() + "x" + this.numCols() + " system with " + b.numRows() + " rows of right hand sides");
+		} // if
+
+		validateCache();
+		if (lu == null) {
+			lu = new LUDecomposition(this);
+		} // if
+		if (lu.isSingular()) {
+			throw new SingularMatrixException("The system does not have a unique solution");
+		} // if
+
+		return lu.solve(b, parallel);
+	} // solve
+
+	/**
+	 * Finds the determinate of a matrix. Uses the LU decomposition PA = LU, so det(A) = det(P)det(U).
 	 * @return the determinate of the given matrix
+	 * @throws DimensionMismatchException if the matrix is not square
 	 */
 	public Fraction det() {
-		if (this.numRows() != this.numCols()) {
-			System.out.println("error: cannot get the determinate of a matrix that is not square");
-			System.exit(0);
-			return null;
-		} else if (this.rank() != this.numRows()) {
-			if (showSteps) {
-				System.out.println("det = 0 because rank < number of rows");
-			} // if
-			return new Fraction(0);
-		} else {
-			Fraction output = new Fraction(1);
-
-			if (this.isLowerTriangular() || this.isUpperTriangular()) {
-				for (int i = 0; i < this.numRows(); i++) {
-					output = output.multiply(this.getFrac(i, i));
-				} // for i
-			} else {
-				if (this.getL() == null) {
-					this.findLUDecomposition();
-				} // if
-				output = output.multiply(this.getL().det());
-				output = output.multiply(this.getU().det());
-				if (showSteps) {
-					System.out.println("det(L) = " + this.getL().det());
-					System.out.println("det(U) = " + this.getU().det());
-					System.out.println("det(L) * det(U) = " + output);
-				} // if
-			} // else
-			return output;
-		} // else
+		return det(steps);
+	} // det
+
+	/**
+	 * Finds the determinate of a matrix, reporting each step.
+	 * If the determinate is already saved, it is returned without any steps.
+	 * @param listener receives each step, or null for no tracing
+	 * @return the determinate of the given matrix
+	 * @throws DimensionMismatchException if the matrix is not square
+	 */
+	public Fraction det(StepListener listener) {
+		if (!this.squareShape()) {
+			throw new DimensionMismatchException("cannot get the determinate of a " + this.numRows() + "x" + this.numCols() + " matrix, it is not square");
+		} // if
+
+		validateCache();
+		if (cachedDet != null) {
+			return cachedDet;
+		} else if (modular) {
+			cachedDet = new ModularElimination(this).det(listener);
+			return cachedDet;
+		} else if (fractionFree) {
+			cachedDet = new BareissElimination(this, listener).det();
+			return cachedDet;
+		} // else if
+
+		// a singular matrix still has an LU decomposition, with a 0 on the diagonal of U
+		if (lu == null) {
+			lu = new LUDecomposition(this, listener);
+		} // if
+		cachedDet = lu.det();
+		if (listener != null) {
+			listener.note("det(P) * det(U) = " + cachedDet, null);
+		} // if
+		return cachedDet;
 	} // det
 
 	/**
 	 * Finds the inverse of the matrix.
 	 * Augments the identity then row reduces to find the inverse.
-	 * Does not alter the matrix object.
+	 * Does not alter the matrix object. The inverse is saved until the matrix changes.
 	 * @return The inverse of the matrix
+	 * @throws DimensionMismatchException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular
 	 */
 	public Matrix findInverse() {
-		if (this.det().getNumerator() == 0) {
-			System.out.println("This matrix is not invertible.");
-			System.exit(0);
+		return findInverse(steps);
+	} // findInverse
+
+	/**
+	 * Finds the inverse of the matrix, reporting each step of the row reduction.
+	 * If the inverse is already saved, it is returned without any steps.
+	 * @param listener receives each step, or null for no tracing
+	 * @return The inverse of the matrix
+	 * @throws DimensionMismatchException if the matrix is not square
+	 * @throws SingularMatrixException if the matrix is singular
+	 */
+	public Matrix findInverse(StepListener listener) {
+		validateCache();
+		if (inverse != null && inverse.m.modCount() == inverseModCount) {
+			return inverse;
+		} // if
+
+		if (this.det(listener).isZero()) {
+			throw new SingularMatrixException("This matrix is not invertible.");
 		} // if
 
 		Fraction[][] input = new Fraction[this.numRows()][this.numCols() * 2];
@@ -432,70 +377,67 @@ public class Matrix {
 			for (int j = 0; j < this.numCols(); j++) {
 				input[i][j] = this.getFrac(i, j);
 				if (i == j) {
-					input[i][j + this.numCols()] = new Fraction(1);
+					input[i][j + this.numCols()] = Fraction.valueOf(1);
 				} else {
-					input[i][j + this.numCols()] = new Fraction(0);
+					input[i][j + this.numCols()] = Fraction.valueOf(0);
 				}
 			} // for j
 		} // for i
 
 		Matrix temp = new Matrix(input);
-		temp.convertToReducedREF();
-		Matrix output = new Matrix(new Fraction[this.numRows()][this.numCols()]);
+		temp.convertToReducedREF(listener);
+		Fraction [][] entries = new Fraction[this.numRows()][this.numCols()];
 		for (int i = 0; i < this.numRows(); i++) {
 			for (int j = 0; j < this.numCols(); j++) {
-				output.setFrac(i, j, temp.getFrac(i, j + this.numCols()));
+				entries[i][j] = temp.getFrac(i, j + this.numCols());
 			} // for j
 		} // for i
 
+		Matrix output = new Matrix(entries);
 		inverse = output;
+		inverseModCount = output.m.modCount();
 		return output;
 	} // findInverse
 	
 	/**
-	 * Finds the transpose of this matrix.
+	 * Finds the transpose of this matrix. The transpose is a view, so no entries are moved until one of the
+	 * two matrices is changed. It is not saved: a saved view would stay attached, and the next change to this
+	 * matrix would copy it. Making a new one costs nothing. Call releaseView on it once it is no longer needed;
+	 * until the collector clears it, a view that is only dropped is still copied when this matrix changes.
 	 * @return the transpose of this matrix
 	 */
 	public Matrix findTranspose() {
-		T = new Matrix(new Fraction[this.numCols()][this.numRows()]);
-		
-		for (int i = 0; i < this.numRows(); i++) {
-			for (int j = 0; j < this.numCols(); j++) {
-				T.setFrac(j, i, this.getFrac(i, j));
-			} // for j
-		} // for i
-		
-		return T;
+		return new Matrix(ViewStorage.transpose(m));
 	} // findTranspose
 
 	/**
-	 * Rotates a matrix 180 degrees.
+	 * Stops a view, from findTranspose, findRotation, subMatrix, AugmentedMatrix.getMatrix or
+	 * LUDecomposition.permute, from reading the matrix it was made from, so later changes to that matrix do not
+	 * copy it. Views are snapshots: the matrix they were made from copies their entries into them just before
+	 * it changes, which costs O(rows * cols) per view. A view that is only dropped is still copied until the
+	 * collector clears it. This view cannot be used afterwards. Does nothing if this matrix is not a view.
 	 */
-	private void rotateMatrix() {
-		if (showSteps) {
-			System.out.println("Rotate matrix:");
+	public void releaseView() {
+		if (m instanceof ViewStorage) {
+			((ViewStorage)m).release();
 		} // if
+	} // releaseView
 
-		// reverse the entries of each row
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length / 2; j++) {
-				swapEntries(i, j, i, m[0].length - 1 - j);
-			} // for j
-		} // for i
-
-		// swap opposite rows
-		for (int i = 0; i < m.length / 2; i++) {
-			swapRows(i, m.length - 1 - i);
-		} // for i
-
-		if (showSteps) {
-			System.out.println(this);
-		} // if
-	} // rotateMatrix
+	/**
+	 * Finds this matrix rotated 180 degrees: the rows in reverse order, each with its entries reversed.
+	 * The rotation is a view, so no entries are moved until one of the two matrices is changed.
+	 * Release it with releaseView when done, as for findTranspose.
+	 * @return the rotated matrix
+	 */
+	public Matrix findRotation() {
+		return new Matrix(ViewStorage.rotated(m));
+	} // findRotation
 
 	/**
 	 * Returns a submatrix. Row and column values are inclusive:
 	 * 0 <= row < numRows and 0 <= col < numCols
+	 * The submatrix is a view, so no entries are copied until one of the two matrices is changed.
+	 * Release it with releaseView when done, as for findTranspose.
 	 * @param firstRow
 	 * @param lastRow
 	 * @param firstCol
@@ -503,88 +445,34 @@ public class Matrix {
 	 * @return a submatrix of the matrix
 	 */
 	protected Matrix subMatrix(int firstRow, int lastRow, int firstCol, int lastCol) {
-		Matrix output = new Matrix();
-		
+		MatrixStorage entries = ViewStorage.submatrix(m, firstRow, firstCol, lastRow - firstRow + 1, lastCol - firstCol + 1);
+
 		if (this instanceof AugmentedMatrix) {
 			int newAugIndex = -1;
 			if (((AugmentedMatrix)this).getAugIndex() <= lastCol) {
 				newAugIndex = ((AugmentedMatrix)this).getAugIndex() - firstCol;
 			} // if
-			output = new AugmentedMatrix(new Fraction[lastRow - firstRow + 1][lastCol - firstCol + 1], newAugIndex);
-		} else {
-			output = new Matrix(new Fraction[lastRow - firstRow + 1][lastCol - firstCol + 1]);
-		} // else
-
-		for (int i = firstRow; i <= lastRow; i++) {
-			for (int j = firstCol; j <= lastCol; j++) {
-				output.setFrac(i - firstRow, j - firstCol, this.getFrac(i, j));
-			} // for j
-		} // for i
+			return new AugmentedMatrix(entries, newAugIndex);
+		} // if
 
-		return output;
+		return new Matrix(entries);
 	} // subMatrix
 
-	/**
-	 * Takes a mxn matrix and inserts a (m-1)x(n-1) matrix in the bottom right corner.
-	 * @param big the big matrix
-	 * @param small the small matrix
-	 * @return the larger matrix with the smaller matrix inserted in the bottom right corner
-	 */
-	private static Matrix insertMatrix(Matrix big, Matrix small) {
-		for (int i = 0; i < small.numRows(); i++) {
-			for (int j = 0; j < small.numCols(); j++) {
-				big.setFrac(i + 1, j + 1, small.getFrac(i, j));
-			} // for j
-		} // for i
-
-		return big;
-	} // insertMatrix
-
-	/**
-	 * Finds the dot product of a given row and column of two matrices. Used to multiply two matrices.
-	 * @param m1
-	 * @param row
-	 * @param m2
-	 * @param col
-	 * @return dot product of the matrices
-	 */
-	private static Fraction dotProduct(Matrix m1, int row, Matrix m2, int col) {
-		Fraction output = new Fraction();
-
-		for (int i = 0; i < m1.numRows(); i++) {
-			output = output.add(m1.getFrac(row, i).multiply(m2.getFrac(i, col)));
-		} // for i
-
-		return output;
-	} // Fraction
-
 	/**
 	 * Makes all leading entries in a matrix 1.
-	 */
-	private void makeLeadingEntriesOne() {
-		if (showSteps) {
-			System.out.println("Make leading entries 1:");
-		} // if
-
-		for (int i = 0; i < m.length; i++) {
-			int j = 0;
-			while (j < m[0].length && m[i][j].getNumerator() == 0) {
-				j++;
-			} // while
-
-			if (j != m[0].length) {
-				Fraction coefficient = new Fraction(m[i][j].getDenominator(), m[i][j].getNumerator());
-
-				for (; j < m[0].length; j++) {
-					m[i][j] = m[i][j].multiply(coefficient);
-				} // for j
+	 * @param listener receives each step, or null for no tracing
+	 */
+	private void makeLeadingEntriesOne(StepListener listener) {
+		for (int i = 0; i < m.numRows(); i++) {
+			int j = m.leadingColumn(i);
+			if (j != m.numCols()) {
+				Fraction coefficient = m.get(i, j).reciprocal();
+				m.scaleRow(i, coefficient, j);
+				if (listener != null) {
+					listener.scale(this, i, coefficient);
+				} // if
 			} // if
 		} // for i
-
-
-		if (showSteps) {
-			System.out.println(this);
-		} // if
 	} // makeLeadingEntriesOne
 
 	/**
@@ -593,45 +481,22 @@ public class Matrix {
 	 * @param row2
 	 */
 	private void swapRows(int row1, int row2) {
-		Fraction temp = new Fraction(0, 0);
-
-		for (int j = 0; j < m[0].length; j++) {
-			temp = m[row1][j];
-			m[row1][j] = m[row2][j];
-			m[row2][j] = temp;
-		} // for j
+		m.swapRows(row1, row2);
 	} // swapRows
 
-	/**
-	 * Swaps two entries in a matrix.
-	 * @param row1
-	 * @param col1
-	 * @param row2
-	 * @param col2
-	 */
-	private void swapEntries(int row1, int col1, int row2, int col2) {
-		Fraction temp = new Fraction(0, 0);
-
-		temp = m[row1][col1];
-		m[row1][col1] = m[row2][col2];
-		m[row2][col2] = temp;
-	} // swapEntries
-
 	/**
 	 * Checks if a column contains only 0 entries.
 	 * @param col
 	 * @return true if the column contains only 0 entries, false otherwise
 	 */
 	private boolean isZeroCol(int col) {
-		boolean output = true;
-
-		for (int i = 0; i < m.length; i++) {
-			if (m[i][col].getNumerator() != 0) {
-				output = false;
+		for (int i = 0; i < m.numRows(); i++) {
+			if (!m.isZero(i, col)) {
+				return false;
 			} // if
 		} // for i
 
-		return output;
+		return true;
 	} // isZeroCol
 
 	/**
@@ -640,15 +505,7 @@ public class Matrix {
 	 * @return true if the row contains only 0 entries, false otherwise
 	 */
 	private boolean isZeroRow(int row) {
-		boolean output = true;
-
-		for (int j = 0; j < m[0].length; j++) {
-			if (m[row][j].getNumerator() != 0) {
-				output = false;
-			} // if
-		} // int j
-
-		return output;
+		return m.leadingColumn(row) == m.numCols();
 	} // isZeroRow
 
 	/**
@@ -656,15 +513,7 @@ public class Matrix {
 	 * @return a copy of the matrix
 	 */
 	public Matrix copy() {
-		Matrix output = new Matrix(new Fraction[this.numRows()][this.numCols()]);
-
-		for (int i = 0; i < output.numRows(); i++) {
-			for (int j = 0; j < output.numCols(); j++) {
-				output.setFrac(i, j, this.getFrac(i, j));
-			} // for j
-		} // for i
-
-		return output;
+		return new Matrix(m.copy());
 	} // copy
 
 	/**
@@ -678,9 +527,9 @@ public class Matrix {
 		for (int i = 0; i < n; i++) {
 			for (int j = 0; j < n; j++) {
 				if (i == j) {
-					temp[i][j] = new Fraction(1);
+					temp[i][j] = Fraction.valueOf(1);
 				} else {
-					temp[i][j] = new Fraction(0);
+					temp[i][j] = Fraction.valueOf(0);
 				} // else
 			} // for j
 		} // for i
@@ -689,29 +538,51 @@ public class Matrix {
 	} // createIdentity
 
 	/**
-	 * Finds the rank of the matrix.
+	 * Finds the rank of the matrix. The rank is saved until the matrix changes.
 	 * @return rank of the matrix
 	 */
 	public int rank() {
+		validateCache();
+		if (cachedRank < 0) {
+			cachedRank = calculateRank();
+		} // if
+		return cachedRank;
+	} // rank
+
+	/**
+	 * Calculates the rank of the matrix by row reducing a copy.
+	 * @return rank of the matrix
+	 */
+	private int calculateRank() {
 		int output = this.numRows();
 		Matrix temp = this.copy();
 
 		if (temp instanceof AugmentedMatrix && ((AugmentedMatrix)temp).getAugIndex() >= 1) {
-			output = (temp.subMatrix(0, temp.numRows() - 1, 0, ((AugmentedMatrix)temp).getAugIndex() - 1)).rank();
+			Matrix coefficients = temp.subMatrix(0, temp.numRows() - 1, 0, ((AugmentedMatrix)temp).getAugIndex() - 1);
+			coefficients.fractionFree = fractionFree;
+			coefficients.modular = modular;
+			output = coefficients.rank();
+			coefficients.releaseView();
 		} // if
 
-		if (!temp.inREF()) {
+		// every row after the last pivot is a zero row
+		if (modular) {
+			output -= m.numRows() - new ModularElimination(temp).rank();
+		} else if (fractionFree) {
+			output -= m.numRows() - new BareissElimination(temp).rank();
+		} else {
 			temp.convertToREF();
-		} // if
-
-		for (int i = 0; i < m.length; i++) {
-			if (temp.isZeroRow(i)) {
-				output--;
-			} // if
-		} // for i
+			for (int i = 0; i < m.numRows(); i++) {
+				if (temp.isZeroRow(i)) {
+					output--;
+				} // if
+			} // for i
+		} // else
 
+		// the copy may hold resources outside the heap, such as the scratch file of a tiled matrix
+		temp.m.release();
 		return output;
-	} // rank
+	} // calculateRank
 
 	/**
 	 * Finds the nullity of the matrix. Uses rank(A) + nullity(A) = n, for a mxn matrix.
@@ -726,44 +597,19 @@ public class Matrix {
 	 * @return true if in REF, false otherwise
 	 */
 	public boolean inREF() {
-		boolean output = true;
-		boolean [] zeroRows = new boolean [m.length];
-
-		// check first condition: if all entries are 0, this row is at the bottom
-		for (int i = 0; i < m.length; i++) {
-			zeroRows[i] = true;
-			for (int j = 0; j < m[0].length; j++) {
-				if (m[i][j].getNumerator() != 0) {
-					zeroRows[i] = false;
-				} // if
-			} // for j
-		} // for i
-
-		for (int i = 0; i < zeroRows.length; i++) {
-			if (zeroRows[i]) {
-				for (int j = ++i; j < zeroRows.length; j++) {
-					if (!zeroRows[j]) {
-						output = false;
-					} // if
-				} // for j
+		int previous = -1;
+
+		// rows that are all 0 have a leading column of numCols, so both conditions are checked at once:
+		// rows of 0 are at the bottom, and upper leading entries are always to the left of lower leading entries
+		for (int i = 0; i < m.numRows(); i++) {
+			int col = m.leadingColumn(i);
+			if (col <= previous && col != m.numCols()) {
+				return false;
 			} // if
+			previous = col;
 		} // for i
 
-		// check second condition: upper leading entries are always to the left of lower leading entries
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (m[i][j].getNumerator() != 0) {
-					for (int k = i + 1; k < m.length; k++) {
-						if (m[k][j].getNumerator() != 0) {
-							output = false;
-						} // if
-					} // for k
-					break;
-				} // if
-			} // for j
-		} // for i
-
-		return output;
+		return true;
 	} // inREF
 
 	/**
@@ -771,25 +617,25 @@ public class Matrix {
 	 * @return true if in RREF, false otherwise
 	 */
 	public boolean inRREF() {
-		boolean output = this.inREF();
+		if (!this.inREF()) {
+			return false;
+		} // if
 
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (m[i][j].getNumerator() != 0) {
-					if (m[i][j].getNumerator() != 1) {
-						output = false;
-					} // if
-					for (int k = i - 1; k >= 0; k--) {
-						if (m[k][j].getNumerator() != 0) {
-							output = false;
-						} // if
-					} // for k
-					break;
+		for (int i = 0; i < m.numRows(); i++) {
+			int j = m.leadingColumn(i);
+			if (j == m.numCols()) {
+				break;
+			} else if (!m.get(i, j).isOne()) {
+				return false;
+			} // else if
+			for (int k = i - 1; k >= 0; k--) {
+				if (!m.isZero(k, j)) {
+					return false;
 				} // if
-			} // for j
+			} // for k
 		} // for i
 
-		return output;
+		return true;
 	} // inRREF
 
 	/**
@@ -797,17 +643,13 @@ public class Matrix {
 	 * @return true if the matrix is the zero matrix, false otherwise
 	 */
 	public boolean isZero() {
-		boolean output = true;
-
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (m[i][j].getNumerator() != 0) {
-					output = false;
-				} // if
-			} // for j
+		for (int i = 0; i < m.numRows(); i++) {
+			if (!isZeroRow(i)) {
+				return false;
+			} // if
 		} // for i
 
-		return output;
+		return true;
 	} // isZero
 
 	/**
@@ -817,11 +659,11 @@ public class Matrix {
 	public boolean isIdentity() {
 		boolean output = true;
 
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (i != j && m[i][j].getNumerator() != 0) {
+		for (int i = 0; i < m.numRows(); i++) {
+			for (int j = 0; j < m.numCols(); j++) {
+				if (i != j && !m.isZero(i, j)) {
 					output = false;
-				} else if (i == j && m[i][j].getNumerator() != 1) {
+				} else if (i == j && !m.get(i, j).isOne()) {
 					output = false;
 				} // else if
 			} // for j
@@ -831,69 +673,74 @@ public class Matrix {
 	} // isIdentity
 
 	/**
-	 * Determines if a matrix is an elementary matrix.
+	 * Determines if a matrix is an elementary matrix: the identity with one entry changed,
+	 * or with two rows swapped. Only reads the entries, so it is safe to call while other threads read the matrix.
 	 * @return true if elementary, false otherwise
 	 */
 	public boolean isElementary() {
-		boolean output = false;
-		boolean changeFound = false;
-
-		if (!this.isSquare()) {
+		if (!this.squareShape()) {
 			return false;
-		} else if (this.isIdentity()) {
-			return true;
-		} // else if
+		} // if
 
-		// see if two rows have been swapped
-		for (int i = 0; i < this.numRows() - 1; i++) {
-			for (int j = i + 1; j < this.numCols(); j++) {
-				this.swapRows(i, j);
-				if (this.isIdentity()) {
-					if (!changeFound) {
-						changeFound = true;
-						output = true;
-					} else {
-						this.swapRows(i, j);
+		// find where the matrix differs from the identity; a swap differs in exactly 4 places
+		int [] rows = new int[4];
+		int [] cols = new int[4];
+		int changes = 0;
+
+		for (int i = 0; i < m.numRows(); i++) {
+			for (int j = 0; j < m.numCols(); j++) {
+				if ((i == j)? !m.get(i, j).isOne() : !m.isZero(i, j)) {
+					if (changes == 4) {
 						return false;
-					} // else
+					} // if
+					rows[changes] = i;
+					cols[changes] = j;
+					changes++;
 				} // if
-				this.swapRows(i, j);
 			} // for j
 		} // for i
 
-		if (output) {
+		if (changes <= 1) {
 			return true;
-		} else {
-			output = true;
-			changeFound = false;
-		} // else
-
-		// see if a row has been multiplied or been added to another row
-		for (int i = 0; i < this.numRows(); i++) {
-			for (int j = 0; j < this.numCols(); j++) {
-				if (i == j) {
-					if (m[i][j].getNumerator() != 1) {
-						if (!changeFound) {
-							changeFound = true;
-						} else {
-							output = false;
-						} // else
-					} // if
-				} else {
-					if (m[i][j].getNumerator() != 0) {
-						if (!changeFound) {
-							changeFound = true;
-						} else {
-							output = false;
-						} // else
-					} // if
-				} // else
-			} // for j
-		} // for i
+		} else if (changes != 4) {
+			return false;
+		} // else if
 
-		return output;
+		// in row-major order the changes of a swap of rows a < b are (a, a), (a, b), (b, a), (b, b)
+		int a = rows[0];
+		int b = cols[1];
+		return (cols[0] == a && rows[1] == a && rows[2] == b && cols[2] == a && rows[3] == b && cols[3] == b
+				&& m.isZero(a, a) && m.isZero(b, b) && m.get(a, b).isOne() && m.get(b, a).isOne());
 	} // isElementary
 
+	/**
+	 * Checks, without doing any arithmetic, if this matrix can be multiplied on the right by another.
+	 * @param m right multiplied matrix
+	 * @return true if this matrix has as many columns as m has rows, false otherwise
+	 */
+	public boolean canMultiply(Matrix m) {
+		return (this.numCols() == m.numRows());
+	} // canMultiply
+
+	/**
+	 * Checks, without doing any arithmetic, if solve(b) has the right shapes to work with.
+	 * The matrix must still be invertible; see isInvertible.
+	 * @param b right hand sides, one per column
+	 * @return true if this matrix is square and b has as many rows, false otherwise
+	 */
+	public boolean canSolve(Matrix b) {
+		return (this.squareShape() && b.numRows() == this.numRows());
+	} // canSolve
+
+	/**
+	 * Determines if the matrix is square and has a non-zero determinant. The determinant is saved,
+	 * so checking before calling findInverse or solve costs nothing extra.
+	 * @return true if the matrix is invertible, false otherwise
+	 */
+	public boolean isInvertible() {
+		return (this.squareShape() && !this.det().isZero());
+	} // isInvertible
+
 	/**
 	 * Determines if the matrix is a square matrix.
 	 * @return true if the matrix is square, false otherwise
@@ -902,6 +749,15 @@ public class Matrix {
 		return (this.numRows() == this.numCols());
 	} // isSquare
 
+	/**
+	 * Determines if the whole matrix is square. The operations here check this rather than isSquare,
+	 * which AugmentedMatrix overrides to ask about its coefficient block.
+	 * @return true if the matrix has as many rows as columns, false otherwise
+	 */
+	private boolean squareShape() {
+		return (this.numRows() == this.numCols());
+	} // squareShape
+
 	/**
 	 * Determines if the matrix is upper triangular.
 	 * @return true if the matrix is upper triangular, false otherwise
@@ -909,9 +765,9 @@ public class Matrix {
 	public boolean isUpperTriangular() {
 		boolean output = true;
 
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (i > j && m[i][j].getNumerator() != 0) {
+		for (int i = 0; i < m.numRows(); i++) {
+			for (int j = 0; j < m.numCols(); j++) {
+				if (i > j && !m.isZero(i, j)) {
 					output = false;
 				} // if
 			} // for j
@@ -927,9 +783,9 @@ public class Matrix {
 	public boolean isLowerTriangular() {
 		boolean output = true;
 
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (i < j && m[i][j].getNumerator() != 0) {
+		for (int i = 0; i < m.numRows(); i++) {
+			for (int j = 0; j < m.numCols(); j++) {
+				if (i < j && !m.isZero(i, j)) {
 					output = false;
 				} // if
 			} // for j
@@ -945,7 +801,7 @@ public class Matrix {
 	 * @return the fraction in the given location
 	 */
 	public Fraction getFrac(int row, int col) {
-		return m[row][col];
+		return m.get(row, col);
 	} // getFrac
 
 	/**
@@ -955,7 +811,7 @@ public class Matrix {
 	 * @param f Fraction value of the new entry
 	 */
 	public void setFrac(int row, int col, Fraction f) {
-		m[row][col] = f;
+		m.set(row, col, f);
 	} // setFrac
 
 	/**
@@ -963,29 +819,62 @@ public class Matrix {
 	 * @return lower triangular matrix
 	 */
 	public Matrix getL() {
-		if (L == null) {
+		validateCache();
+		if (L == null || L.m.modCount() != lModCount) {
 			this.findLUDecomposition();
 		} // if
 		return L;
 	} // getL
 
+	/**
+	 * Gets the permutation matrix in the LU decomposition of this matrix, PA = LU.
+	 * @return permutation matrix
+	 */
+	public Matrix getP() {
+		validateCache();
+		if (lu == null) {
+			this.findLUDecomposition();
+		} // if
+		return lu.getP();
+	} // getP
+
 	/**
 	 * Gets the upper triangular matrix in the LU decomposition of this matrix.
 	 * @return upper triangular matrix
 	 */
 	public Matrix getU() {
-		if (U == null) {
+		validateCache();
+		if (U == null || U.m.modCount() != uModCount) {
 			this.findLUDecomposition();
 		} // if
 		return U;
 	} // Matrix
 
+	/**
+	 * Clears the saved rank, determinant, LU decomposition and inverse
+	 * if the entries have changed since they were calculated.
+	 */
+	private void validateCache() {
+		if (m.modCount() != cacheModCount) {
+			cachedRank = -1;
+			cachedDet = null;
+			if (lu != null) {
+				lu.release();
+			} // if
+			lu = null;
+			L = null;
+			U = null;
+			inverse = null;
+			cacheModCount = m.modCount();
+		} // if
+	} // validateCache
+
 	/**
 	 * Gets the number of rows in the matrix.
 	 * @return number of rows
 	 */
 	public int numRows() {
-		return m.length;
+		return m.numRows();
 	} // numRows
 
 	/**
@@ -993,16 +882,42 @@ public class Matrix {
 	 * @return number of columns
 	 */
 	public int numCols() {
-		return m[0].length;
+		return m.numCols();
 	} // numCols
 
 	/**
-	 * Switches the value of the variable showSteps.
+	 * Switches step tracing on this matrix on or off. When on, methods that are not given a
+	 * listener print each step to System.out. Other matrices are not affected.
 	 */
 	public void changeShowSteps() {
-		showSteps = !showSteps;
+		steps = (steps == null)? new PrintStepListener() : null;
 	} // changeShowSteps
 
+	/**
+	 * Sets the listener used by the methods of this matrix that are not given one.
+	 * @param listener receives each step, or null for no tracing
+	 */
+	public void setStepListener(StepListener listener) {
+		steps = listener;
+	} // setStepListener
+
+	/**
+	 * Switches the value of the variable fractionFree. When set, convertToREF, det and rank
+	 * use fraction-free (Bareiss) elimination on integer entries instead of Fraction arithmetic.
+	 */
+	public void changeFractionFree() {
+		fractionFree = !fractionFree;
+	} // changeFractionFree
+
+	/**
+	 * Switches the value of the variable modular. When set, det and rank reduce the matrix modulo
+	 * several 62-bit primes and rebuild the exact result, which avoids coefficient growth on large matrices.
+	 * The rank is found with random primes and is correct with overwhelming probability.
+	 */
+	public void changeModular() {
+		modular = !modular;
+	} // changeModular
+
 	/**
 	 * Switches the value of the variable displayDoubles.
 	 */
@@ -1015,103 +930,13 @@ public class Matrix {
 	 */
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
-		boolean ints = true;
-		int maxChars = 0;
-		boolean negativeFirstRow = false;
-
-		// determines if the entire matrix is integers
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (m[i][j].getNumerator() % m[i][j].getDenominator() != 0) {
-					ints = false;
-				} // if
-				if (m[i][0].getNumerator() < 0) {
-					negativeFirstRow = true;
-				}
-			} // for j
-		} // for i
-
-		// finds the highest numbers of characters in any entry
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (m[i][j].toString().length() > maxChars && !displayDoubles) {
-					maxChars = m[i][j].toString().length();
-				} else if (m[i][j].toString().length() > maxChars && displayDoubles) {
-					maxChars = (m[i][j].getDouble() + "").toString().length();
-				} // else if
-			} // for j
-		} // for i
-
-		// if all the entries are integers, remove the "/1"
-		if (ints) {
-			maxChars -= 2;
-		} // if
-
-		// print the matrix row by row
-		for (int i = 0; i < m.length; i++) {
-			for (int j = 0; j < m[0].length; j++) {
-				if (negativeFirstRow && j == 0 && m[i][j].isPositive()) {
-					sb.append(" ");
-				} // if
-
-				if (ints) {
-					sb.append(m[i][j].getNumerator());
-					if (!m[i][j].isPositive()) {
-						sb.append(fillSpaces(maxChars + 1, (m[i][j].getNumerator() + "").toString().length()));
-					} else {
-						sb.append(fillSpaces(maxChars, (m[i][j].getNumerator() + "").toString().length()));
-					} // else
-				} else {
-					if (displayDoubles) {
-						sb.append(m[i][j].getDouble());
-						if (!m[i][j].isPositive()) {
-							sb.append(fillSpaces(maxChars + 1, (m[i][j].getDouble() + "").length()));
-						} else {
-							sb.append(fillSpaces(maxChars, (m[i][j].getDouble() + "").length()));
-						} // else
-					} else {
-						sb.append(m[i][j]);
-						if (!m[i][j].isPositive()) {
-							sb.append(fillSpaces(maxChars, m[i][j].toString().length()));
-						} else {
-							sb.append(fillSpaces(maxChars - 1, m[i][j].toString().length()));
-						} // else
-					} // else
-					sb.append(" ");
-				} // else
-
-				if (this instanceof AugmentedMatrix && j == ((AugmentedMatrix)this).getAugIndex() - 1) {
-					if (j + 1 < m[0].length && m[i][j+1].getNumerator() >= 0) {
-						sb.append(" | ");
-					} else {
-						sb.append(" |");
-					} // else
-				} else if (j + 1 < m[0].length && m[i][j+1].getNumerator() >= 0) {
-					sb.append(" ");
-				} // else if
-			} // for j
-			if (i != m.length - 1) {
-				sb.append("\n");
-			} // if
-		} // for i
 
+		try {
+			MatrixWriter.write(this, sb);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);	// a StringBuilder never throws
+		} // catch
 
 		return sb.toString();
 	} // toString
-
-	/**
-	 * Used by toString() to display items with the correct amount of spaces to ensure entries line up.
-	 * @param maxChars number of characters in the largest entry
-	 * @param length number characters in the largest entry
-	 * @return string with enough blanks so that length == maxChars
-	 */
-	private String fillSpaces(int maxChars, int length) {
-		StringBuilder sb = new StringBuilder();
-
-		for (int i = 0; i < (maxChars - length); i++) {
-			sb.append(" ");
-		} // for i
-
-		return sb.toString();
-	} // fillSpaces
 } // Matrix
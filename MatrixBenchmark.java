@@ -0,0 +1,300 @@
+/**
+ * A quick benchmark of Fraction arithmetic and the Matrix operations that runs without the build, in one JVM.
+ * Each benchmark is warmed up, then timed, and reports the time per operation along with the bytes allocated
+ * and the garbage collections run. For numbers to compare across versions, use the JMH suite in jmh/, which
+ * forks a JVM per benchmark and counts allocation with -prof gc; see pom.xml.
+ * Parameters are given as key=value arguments, for example:
+ * java MatrixBenchmark sizes=2,16,128 sparsity=0,0.95 magnitude=10,100000 ops=det,rank seconds=2
+ * Compare multiply with and without Strassen-Winograd by running again with
+ * -Dmatrix.strassen.crossover=100000 -Dmatrix.strassen.doubleCrossover=100000
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class MatrixBenchmark {
+	private static int [] sizes = {2, 8, 32, 128, 512};
+	private static double [] sparsities = {0, 0.95};
+	private static int [] magnitudes = {10, 100000};
+	private static List<String> ops = Arrays.asList("fraction", "dot", "multiply", "ref", "rref", "det", "inverse", "rank", "solve");
+	private static double seconds = 1;
+	private static double maxSeconds = 20;		// an operation that takes longer than this once is not run on larger sizes
+	private static volatile Object sink = null;	// keeps results alive so the JIT cannot remove the work
+
+	public static void main(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String[] parts = args[i].split("=");
+			if (parts[0].equals("sizes")) {
+				sizes = Arrays.stream(parts[1].split(",")).mapToInt(Integer::parseInt).toArray();
+			} else if (parts[0].equals("sparsity")) {
+				sparsities = Arrays.stream(parts[1].split(",")).mapToDouble(Double::parseDouble).toArray();
+			} else if (parts[0].equals("magnitude")) {
+				magnitudes = Arrays.stream(parts[1].split(",")).mapToInt(Integer::parseInt).toArray();
+			} else if (parts[0].equals("ops")) {
+				ops = Arrays.asList(parts[1].split(","));
+			} else if (parts[0].equals("seconds")) {
+				seconds = Double.parseDouble(parts[1]);
+			} // else if
+		} // for i
+
+		System.out.println(String.format("%-22s %6s %8s %9s %14s %16s %6s %8s", "benchmark", "size", "sparsity", "magnitude", "ms/op", "bytes/op", "gcs", "gc ms"));
+
+		if (ops.contains("fraction")) {
+			benchmarkFractions();
+		} // if
+
+		for (int magnitude : magnitudes) {
+			for (double sparsity : sparsities) {
+				boolean [] skip = new boolean[14];
+				for (int n : sizes) {
+					Matrix a = randomMatrix(n, n, sparsity, magnitude, 1);
+					Matrix b = randomMatrix(n, n, sparsity, magnitude, 2);
+					Matrix ff = a.copy();
+					ff.changeFractionFree();
+					AugmentedMatrix system = randomSystem(n, sparsity, magnitude);
+					DoubleMatrix da = new DoubleMatrix(a);
+					DoubleMatrix db = new DoubleMatrix(b);
+
+					skip[13] = skip[13] || run("dotProduct", ops.contains("dot") && !skip[13], n, sparsity, magnitude, () -> a.m, x -> {
+						for (int i = 0; i < n; i++) {
+							sink = x.dotProduct(i, b.m, i);
+						} // for i
+					});
+					skip[0] = skip[0] || run("multiply", ops.contains("multiply") && !skip[0], n, sparsity, magnitude, () -> a, x -> sink = x.multiply(b));
+					skip[1] = skip[1] || run("convertToREF", ops.contains("ref") && !skip[1], n, sparsity, magnitude, a::copy, x -> sink = x.convertToREF());
+					skip[2] = skip[2] || run("convertToREF bareiss", ops.contains("ref") && !skip[2], n, sparsity, magnitude, ff::copy, x -> {
+						x.changeFractionFree();
+						sink = x.convertToREF();
+					});
+					skip[3] = skip[3] || run("convertToReducedREF", ops.contains("rref") && !skip[3], n, sparsity, magnitude, a::copy, x -> sink = x.convertToReducedREF());
+					skip[4] = skip[4] || run("det", ops.contains("det") && !skip[4], n, sparsity, magnitude, a::copy, x -> sink = x.det());
+					skip[5] = skip[5] || run("findInverse", ops.contains("inverse") && !skip[5], n, sparsity, magnitude, a::copy, x -> sink = x.findInverse());
+					skip[6] = skip[6] || run("rank", ops.contains("rank") && !skip[6], n, sparsity, magnitude, a::copy, x -> sink = x.rank());
+					skip[7] = skip[7] || run("solveSystem", ops.contains("solve") && !skip[7], n, sparsity, magnitude, system::copy, x -> sink = x.solveSystem());
+
+					// the same operations with doubles, to compare the engines
+					skip[8] = skip[8] || run("double multiply", ops.contains("multiply") && !skip[8], n, sparsity, magnitude, () -> da, x -> sink = x.multiply(db));
+					skip[9] = skip[9] || run("double convertToREF", ops.contains("ref") && !skip[9], n, sparsity, magnitude, da::copy, x -> sink = x.convertToREF());
+					skip[10] = skip[10] || run("double det", ops.contains("det") && !skip[10], n, sparsity, magnitude, () -> da, x -> sink = x.det());
+					skip[11] = skip[11] || run("double findInverse", ops.contains("inverse") && !skip[11], n, sparsity, magnitude, () -> da, x -> sink = x.findInverse());
+					skip[12] = skip[12] || run("double rank", ops.contains("rank") && !skip[12], n, sparsity, magnitude, () -> da, x -> sink = x.rank());
+				} // for n
+			} // for sparsity
+		} // for magnitude
+	} // main
+
+	/**
+	 * Benchmarks the Fraction constructors and arithmetic.
+	 */
+	private static void benchmarkFractions() {
+		Random random = new Random(0);
+		int count = 1024;
+		Fraction [] values = new Fraction[count];
+
+		for (int magnitude : magnitudes) {
+			for (int i = 0; i < count; i++) {
+				values[i] = new Fraction(random.nextInt(2 * magnitude + 1) - magnitude, 1 + random.nextInt(magnitude));
+			} // for i
+
+			run("Fraction(long, long)", true, count, 0, magnitude, () -> values, x -> {
+				for (int i = 0; i < count; i++) {
+					sink = new Fraction(i * 6L, 4L + i);
+				} // for i
+			});
+			run("Fraction.valueOf", true, count, 0, magnitude, () -> values, x -> {
+				for (int i = 0; i < count; i++) {
+					sink = Fraction.valueOf(i % 64 - 32, 1 + i % 8);
+				} // for i
+			});
+			run("Fraction(int)", true, count, 0, magnitude, () -> values, x -> {
+				for (int i = 0; i < count; i++) {
+					sink = new Fraction(i);
+				} // for i
+			});
+			run("Fraction(double)", true, count, 0, magnitude, () -> values, x -> {
+				for (int i = 0; i < count; i++) {
+					sink = new Fraction(i * 0.25);
+				} // for i
+			});
+			run("Fraction.add", true, count, 0, magnitude, () -> values, x -> {
+				for (int i = 1; i < count; i++) {
+					sink = x[i].add(x[i - 1]);
+				} // for i
+			});
+			run("Fraction.multiply", true, count, 0, magnitude, () -> values, x -> {
+				for (int i = 1; i < count; i++) {
+					sink = x[i].multiply(x[i - 1]);
+				} // for i
+			});
+
+			// sum of products, with immutable fractions and with an accumulator; the accumulator should allocate only its result
+			run("sum add(multiply)", true, count, 0, magnitude, () -> values, x -> {
+				Fraction sum = new Fraction();
+				for (int i = 1; i < count; i++) {
+					sum = sum.add(x[i].multiply(x[i - 1]));
+				} // for i
+				sink = sum;
+			});
+			run("FractionAccumulator", true, count, 0, magnitude, () -> values, x -> {
+				FractionAccumulator sum = new FractionAccumulator();
+				for (int i = 1; i < count; i++) {
+					sum.multiplyAdd(x[i], x[i - 1]);
+				} // for i
+				sink = sum.toFraction();
+			});
+		} // for magnitude
+	} // benchmarkFractions
+
+	/**
+	 * Warms up and times one benchmark, then prints a line of results. The setup is run before every
+	 * operation and is not timed, so operations that change their input always start from the same state.
+	 * @param name name of the benchmark
+	 * @param enabled false to skip the benchmark
+	 * @param n size of the input
+	 * @param sparsity fraction of entries that are 0
+	 * @param magnitude largest absolute value of an entry
+	 * @param setup creates the input for one operation
+	 * @param operation the work being measured
+	 * @return true if one operation took longer than maxSeconds, so larger sizes should be skipped
+	 */
+	private static <T> boolean run(String name, boolean enabled, int n, double sparsity, int magnitude, Supplier<T> setup, Consumer<T> operation) {
+		if (!enabled) {
+			return false;
+		} // if
+
+		// warm up for half of the time budget
+		long warmupEnd = System.nanoTime() + (long)(seconds * 5e8);
+		do {
+			long start = System.nanoTime();
+			operation.accept(setup.get());
+			if (System.nanoTime() - start > maxSeconds * 1e9) {
+				System.out.println(String.format("%-22s %6d %8.2f %9d %14s", name, n, sparsity, magnitude, "too slow"));
+				return true;
+			} // if
+		} while (System.nanoTime() < warmupEnd);
+
+		long elapsed = 0;
+		long allocated = 0;
+		long gcCount = -gcCount();
+		long gcTime = -gcTime();
+		int iterations = 0;
+
+		while (elapsed < seconds * 1e9 || iterations == 0) {
+			T input = setup.get();
+			long bytes = allocatedBytes();
+			long start = System.nanoTime();
+			operation.accept(input);
+			elapsed += System.nanoTime() - start;
+			allocated += allocatedBytes() - bytes;
+			iterations++;
+		} // while
+
+		gcCount += gcCount();
+		gcTime += gcTime();
+		System.out.println(String.format("%-22s %6d %8.2f %9d %14.4f %16d %6d %8d", name, n, sparsity, magnitude,
+				elapsed / 1e6 / iterations, allocated / iterations, gcCount, gcTime));
+		return false;
+	} // run
+
+	/**
+	 * Creates a random square matrix with a dominant diagonal, so it is always invertible.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param sparsity fraction of off-diagonal entries that are 0
+	 * @param magnitude largest absolute value of an off-diagonal entry
+	 * @param seed random seed
+	 * @return the matrix
+	 */
+	static Matrix randomMatrix(int rows, int cols, double sparsity, int magnitude, long seed) {
+		Random random = new Random(seed);
+		PackedStorage storage = new PackedStorage(rows, cols);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (i == j) {
+					storage.set(i, j, new Fraction((long)magnitude * cols + 1, 1));
+				} else if (random.nextDouble() >= sparsity) {
+					storage.set(i, j, new Fraction(random.nextInt(2 * magnitude + 1) - magnitude, 1));
+				} // else if
+			} // for j
+		} // for i
+
+		return new Matrix(storage);
+	} // randomMatrix
+
+	/**
+	 * Creates a random system with exactly one solution.
+	 * @param n number of unknowns
+	 * @param sparsity fraction of coefficients that are 0
+	 * @param magnitude largest absolute value of an entry
+	 * @return the augmented matrix of the system
+	 */
+	static AugmentedMatrix randomSystem(int n, double sparsity, int magnitude) {
+		Matrix coefficients = randomMatrix(n, n, sparsity, magnitude, 3);
+		Random random = new Random(4);
+		PackedStorage storage = new PackedStorage(n, n + 1);
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				storage.set(i, j, coefficients.getFrac(i, j));
+			} // for j
+			storage.set(i, n, new Fraction(random.nextInt(2 * magnitude + 1) - magnitude, 1));
+		} // for i
+
+		return new AugmentedMatrix(storage, n);
+	} // randomSystem
+
+	/**
+	 * Gets the total number of bytes allocated by all live threads, including fork-join workers. Workers that
+	 * retire during a run take their counts with them, so parallel operations can be under-counted.
+	 * @return bytes allocated so far
+	 */
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long total = 0;
+
+		for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			total += Math.max(bytes, 0);
+		} // for bytes
+
+		return total;
+	} // allocatedBytes
+
+	/**
+	 * Gets the number of garbage collections run so far.
+	 * @return collection count
+	 */
+	private static long gcCount() {
+		long total = 0;
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(gc.getCollectionCount(), 0);
+		} // for gc
+
+		return total;
+	} // gcCount
+
+	/**
+	 * Gets the time spent in garbage collection so far.
+	 * @return collection time in milliseconds
+	 */
+	private static long gcTime() {
+		long total = 0;
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			total += Math.max(gc.getCollectionTime(), 0);
+		} // for gc
+
+		return total;
+	} // gcTime
+
+} // MatrixBenchmark
@@ -0,0 +1,21 @@
+/**
+ * Thrown when a matrix operation cannot be performed on its input. The subclasses say why,
+ * so a caller can catch the ones it expects and reject the request without stopping the program.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+public class MatrixException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor.
+	 * @param message description of the problem
+	 */
+	public MatrixException(String message) {
+		super(message);
+	} // MatrixException
+
+} // MatrixException
@@ -0,0 +1,403 @@
+/**
+ * Saves matrices in a versioned binary format and loads them through a memory map, so a saved matrix
+ * opens in about the time it takes to map the file instead of the time it takes to parse text.
+ *
+ * Every file starts with a 32 byte big-endian header:
+ * magic "MTRX" (4), version (2), layout (1), reserved (1), rows (4), cols (4), augIndex or -1 (4),
+ * number of big entries (4), and the offset of the big entries (8). The entries follow in one of three layouts:
+ * FIXED: every numerator as an 8 byte long, row-major, then every denominator. read() maps these directly
+ * as the storage, without decoding or copying them.
+ * VARINT: each entry as a zig-zag varint numerator and a varint denominator, row-major. Small values take
+ * one or two bytes each, so the file is several times smaller, but the entries are decoded on load.
+ * SPARSE: for each row, a varint count of its non-zero entries, then for each entry a varint gap from the
+ * previous column, a zig-zag varint numerator and a varint denominator. Loaded into sparse storage.
+ * An entry that does not fit in longs is written as 0/0 and kept in the big entries section at the end:
+ * for each, its row-major index as a long, then the numerator and the denominator as an int byte count
+ * followed by the bytes of BigInteger.toByteArray().
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class MatrixFile {
+	public static final int FIXED = 0;
+	public static final int VARINT = 1;
+	public static final int SPARSE = 2;
+	static final int MAGIC = 0x4D545258;	// "MTRX"
+	static final short VERSION = 1;
+	static final int HEADER = 32;
+	private static final int BUFFER = 1 << 16;
+
+	/**
+	 * Constructor. Not used; every method is static.
+	 */
+	private MatrixFile() {
+	} // MatrixFile
+
+	/**
+	 * Writes a matrix to a file, replacing the file if it exists. Entries are written through a fixed-size
+	 * buffer, so the whole file is never held in memory.
+	 * @param matrix matrix to write
+	 * @param path file to write
+	 * @param layout FIXED, VARINT or SPARSE
+	 * @throws IOException if the file cannot be written
+	 * @throws IllegalArgumentException if the layout is not one of the three
+	 */
+	public static void write(Matrix matrix, Path path, int layout) throws IOException {
+		if (layout != FIXED && layout != VARINT && layout != SPARSE) {
+			throw new IllegalArgumentException("unknown layout: " + layout);
+		} // if
+
+		MatrixStorage m = matrix.m;
+		int rows = m.numRows();
+		int cols = m.numCols();
+		ArrayList<Long> bigIndices = new ArrayList<Long>();
+		ArrayList<Fraction> bigEntries = new ArrayList<Fraction>();
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER);
+			channel.position(HEADER);
+
+			if (layout == FIXED) {
+				// all the numerators, then all the denominators
+				for (int pass = 0; pass < 2; pass++) {
+					for (int i = 0; i < rows; i++) {
+						for (int j = 0; j < cols; j++) {
+							Fraction f = m.get(i, j);
+							if (pass == 0 && f.isBig()) {
+								bigIndices.add((long)i * cols + j);
+								bigEntries.add(f);
+							} // if
+							room(channel, buffer, 8);
+							buffer.putLong(f.isBig()? 0 : (pass == 0)? f.getNumerator() : f.getDenominator());
+						} // for j
+					} // for i
+				} // for pass
+			} else if (layout == VARINT) {
+				for (int i = 0; i < rows; i++) {
+					for (int j = 0; j < cols; j++) {
+						putEntry(channel, buffer, m.get(i, j), (long)i * cols + j, bigIndices, bigEntries);
+					} // for j
+				} // for i
+			} else {
+				for (int i = 0; i < rows; i++) {
+					int count = 0;
+					for (int j = m.nextNonZero(i, 0); j < cols; j = m.nextNonZero(i, j + 1)) {
+						count++;
+					} // for j
+					room(channel, buffer, 10);
+					putVarLong(buffer, count);
+
+					int previous = 0;
+					for (int j = m.nextNonZero(i, 0); j < cols; j = m.nextNonZero(i, j + 1)) {
+						room(channel, buffer, 10);
+						putVarLong(buffer, j - previous);
+						previous = j;
+						putEntry(channel, buffer, m.get(i, j), (long)i * cols + j, bigIndices, bigEntries);
+					} // for j
+				} // for i
+			} // else
+
+			// the big entries go last, so their offset is known once the others are written
+			flush(channel, buffer);
+			long bigOffset = channel.position();
+			for (int k = 0; k < bigEntries.size(); k++) {
+				room(channel, buffer, 8);
+				buffer.putLong(bigIndices.get(k));
+				putBytes(channel, buffer, bigEntries.get(k).getBigNumerator().toByteArray());
+				putBytes(channel, buffer, bigEntries.get(k).getBigDenominator().toByteArray());
+			} // for k
+			flush(channel, buffer);
+
+			buffer.clear();
+			buffer.putInt(MAGIC);
+			buffer.putShort(VERSION);
+			buffer.put((byte)layout);
+			buffer.put((byte)0);
+			buffer.putInt(rows);
+			buffer.putInt(cols);
+			buffer.putInt((matrix instanceof AugmentedMatrix)? ((AugmentedMatrix)matrix).getAugIndex() : -1);
+			buffer.putInt(bigEntries.size());
+			buffer.putLong(bigOffset);
+			buffer.flip();
+			channel.write(buffer, 0);
+		} // try
+	} // write
+
+	/**
+	 * Opens a matrix written by write. A FIXED file is mapped and used as the storage directly: nothing is
+	 * copied until the matrix is first changed, and the file itself is never changed. VARINT and SPARSE
+	 * files are mapped and decoded into packed or sparse storage.
+	 * @param path file to read
+	 * @return an AugmentedMatrix if one was written, a Matrix otherwise
+	 * @throws IOException if the file cannot be read, or is not a matrix file of a known version
+	 */
+	public static Matrix read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER) {
+				throw new IOException(path + " is too short to be a matrix file");
+			} // if
+
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+			if (header.getInt() != MAGIC) {
+				throw new IOException(path + " is not a matrix file");
+			} // if
+			short version = header.getShort();
+			if (version != VERSION) {
+				throw new IOException(path + " is version " + version + "; only version " + VERSION + " can be read");
+			} // if
+			int layout = header.get();
+			header.get();
+			int rows = header.getInt();
+			int cols = header.getInt();
+			int augIndex = header.getInt();
+			int bigCount = header.getInt();
+			long bigOffset = header.getLong();
+			if (rows < 1 || cols < 1 || (long)rows * cols > Integer.MAX_VALUE || augIndex >= cols) {
+				throw new IOException(path + " has an invalid size: " + rows + "x" + cols + ", augIndex " + augIndex);
+			} // if
+
+			HashMap<Integer, Fraction> big = new HashMap<Integer, Fraction>();
+			if (bigCount > 0) {
+				ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, bigOffset, channel.size() - bigOffset);
+				for (int k = 0; k < bigCount; k++) {
+					int index = (int)in.getLong();
+					BigInteger p = new BigInteger(getBytes(in));
+					big.put(index, new Fraction(p, new BigInteger(getBytes(in))));
+				} // for k
+			} // if
+
+			MatrixStorage storage;
+			long size = (long)rows * cols * 8;
+			if (layout == FIXED) {
+				// one mapping cannot pass 2 GB, so each half is mapped in segments of whole rows
+				if (8L * cols > Integer.MAX_VALUE) {
+					throw new IOException(path + " has rows of " + cols + " entries, too long to map");
+				} // if
+				int rowsPerSegment = MappedStorage.rowsPerSegment(cols);
+				int segments = (rows + rowsPerSegment - 1) / rowsPerSegment;
+				LongBuffer [] numerators = new LongBuffer[segments];
+				LongBuffer [] denominators = new LongBuffer[segments];
+				for (int k = 0; k < segments; k++) {
+					long offset = (long)k * rowsPerSegment * cols * 8;
+					long length = (long)Math.min(rowsPerSegment, rows - k * rowsPerSegment) * cols * 8;
+					numerators[k] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + offset, length).asLongBuffer();
+					denominators[k] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER + size + offset, length).asLongBuffer();
+				} // for k
+				storage = new MappedStorage(rows, cols, numerators, denominators, big);
+			} else if (layout == VARINT || layout == SPARSE) {
+				if (bigOffset - HEADER > Integer.MAX_VALUE) {
+					throw new IOException(path + " has " + (bigOffset - HEADER) + " bytes of encoded entries; only 2 GB can be decoded, so write matrices this large in the FIXED layout");
+				} // if
+				ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, bigOffset - HEADER);
+				storage = (layout == VARINT)? readVarint(in, rows, cols, big) : readSparse(in, rows, cols, big);
+			} else {
+				throw new IOException(path + " has an unknown layout: " + layout);
+			} // else
+
+			return (augIndex >= 0)? new AugmentedMatrix(storage, augIndex) : new Matrix(storage);
+		} // try
+	} // read
+
+	/**
+	 * Decodes the VARINT layout into packed storage.
+	 * @param in the encoded entries
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param big entries that do not fit in longs, by row-major index
+	 * @return storage holding every entry
+	 */
+	private static MatrixStorage readVarint(ByteBuffer in, int rows, int cols, HashMap<Integer, Fraction> big) {
+		long [] numerators = new long[rows * cols];
+		long [] denominators = new long[rows * cols];
+
+		for (int index = 0; index < numerators.length; index++) {
+			numerators[index] = zigZagDecode(getVarLong(in));
+			denominators[index] = getVarLong(in);
+		} // for index
+
+		// give the big entries a valid placeholder, then set them
+		for (Integer index : big.keySet()) {
+			denominators[index] = 1;
+		} // for index
+		PackedStorage output = new PackedStorage(rows, cols, numerators, denominators);
+		for (Integer index : big.keySet()) {
+			output.set(index / cols, index % cols, big.get(index));
+		} // for index
+
+		return output;
+	} // readVarint
+
+	/**
+	 * Decodes the SPARSE layout into sparse storage.
+	 * @param in the encoded entries
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param big entries that do not fit in longs, by row-major index
+	 * @return storage holding every entry
+	 */
+	private static MatrixStorage readSparse(ByteBuffer in, int rows, int cols, HashMap<Integer, Fraction> big) {
+		SparseStorage output = new SparseStorage(rows, cols);
+
+		for (int i = 0; i < rows; i++) {
+			long count = getVarLong(in);
+			int j = 0;
+			for (long k = 0; k < count; k++) {
+				j += (int)getVarLong(in);
+				long n = zigZagDecode(getVarLong(in));
+				long d = getVarLong(in);
+				Fraction f = (d == 0)? big.get(i * cols + j) : Fraction.valueOf(n, d);
+				output.set(i, j, f);	// columns come in increasing order, so each set appends
+			} // for k
+		} // for i
+
+		return output;
+	} // readSparse
+
+	/**
+	 * Writes one entry as a zig-zag varint numerator and a varint denominator. Big entries are written as 0/0
+	 * and added to the big entries.
+	 * @param channel file being written
+	 * @param buffer write buffer
+	 * @param f entry to write
+	 * @param index row-major index of the entry
+	 * @param bigIndices indices of the big entries so far
+	 * @param bigEntries big entries so far
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void putEntry(FileChannel channel, ByteBuffer buffer, Fraction f, long index,
+			ArrayList<Long> bigIndices, ArrayList<Fraction> bigEntries) throws IOException {
+		room(channel, buffer, 20);
+
+		if (f.isBig()) {
+			bigIndices.add(index);
+			bigEntries.add(f);
+			putVarLong(buffer, 0);
+			putVarLong(buffer, 0);
+		} else {
+			putVarLong(buffer, zigZagEncode(f.getNumerator()));
+			putVarLong(buffer, f.getDenominator());
+		} // else
+	} // putEntry
+
+	/**
+	 * Writes an int byte count followed by the bytes.
+	 * @param channel file being written
+	 * @param buffer write buffer
+	 * @param bytes bytes to write
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void putBytes(FileChannel channel, ByteBuffer buffer, byte [] bytes) throws IOException {
+		room(channel, buffer, 4);
+		buffer.putInt(bytes.length);
+
+		for (int start = 0; start < bytes.length; ) {
+			room(channel, buffer, 1);
+			int length = Math.min(buffer.remaining(), bytes.length - start);
+			buffer.put(bytes, start, length);
+			start += length;
+		} // for start
+	} // putBytes
+
+	/**
+	 * Reads an int byte count followed by the bytes.
+	 * @param in buffer to read
+	 * @return the bytes
+	 */
+	private static byte [] getBytes(ByteBuffer in) {
+		byte [] output = new byte[in.getInt()];
+		in.get(output);
+		return output;
+	} // getBytes
+
+	/**
+	 * Makes sure the buffer has room, writing it to the file if it does not.
+	 * @param channel file being written
+	 * @param buffer write buffer
+	 * @param bytes number of bytes needed
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void room(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush(channel, buffer);
+		} // if
+	} // room
+
+	/**
+	 * Writes everything in the buffer to the file and empties it.
+	 * @param channel file being written
+	 * @param buffer write buffer
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		} // while
+		buffer.clear();
+	} // flush
+
+	/**
+	 * Writes a non-negative long as a varint: 7 bits per byte, low bits first, with the high bit set on
+	 * every byte but the last.
+	 * @param buffer buffer with at least 10 bytes of room
+	 * @param x value to write, read as unsigned
+	 */
+	static void putVarLong(ByteBuffer buffer, long x) {
+		while ((x & ~0x7FL) != 0) {
+			buffer.put((byte)((x & 0x7F) | 0x80));
+			x >>>= 7;
+		} // while
+		buffer.put((byte)x);
+	} // putVarLong
+
+	/**
+	 * Reads a varint written by putVarLong.
+	 * @param in buffer to read
+	 * @return the value
+	 */
+	static long getVarLong(ByteBuffer in) {
+		long output = 0;
+		int shift = 0;
+		byte b;
+
+		do {
+			b = in.get();
+			output |= (long)(b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+
+		return output;
+	} // getVarLong
+
+	/**
+	 * Maps signed values to unsigned ones so values near 0 have short varints: 0, -1, 1, -2 become 0, 1, 2, 3.
+	 * @param x value to encode
+	 * @return the encoded value
+	 */
+	static long zigZagEncode(long x) {
+		return (x << 1) ^ (x >> 63);
+	} // zigZagEncode
+
+	/**
+	 * Reverses zigZagEncode.
+	 * @param x encoded value
+	 * @return the value
+	 */
+	static long zigZagDecode(long x) {
+		return (x >>> 1) ^ -(x & 1);
+	} // zigZagDecode
+
+} // MatrixFile
@@ -0,0 +1,377 @@
+/**
+ * Reads a matrix from text, one row per line. Entries are separated by commas, semicolons or whitespace,
+ * and may be integers, fractions p/q or exact decimals such as -0.125 or 3e-4; quotes around an entry are ignored.
+ * A sign that directly follows a number starts a new entry. A | between two entries splits the coefficients of an augmented matrix from the augmented columns, the same
+ * way Matrix.toString and MatrixWriter write them. Blank lines are skipped.
+ * The text is read in chunks and each entry goes straight into long arrays that become the storage,
+ * so no Fraction object is made for an entry that fits in longs and no Fraction[][] is ever built.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class MatrixReader {
+	private final Reader in;
+	private final char [] buffer = new char[8192];
+	private int position = 0;
+	private int limit = 0;
+	private final StringBuilder token = new StringBuilder();
+	private long [] numerators = new long[1024];	// row-major entries read so far, in lowest terms
+	private long [] denominators = new long[1024];
+	private final HashMap<Integer, Fraction> big = new HashMap<Integer, Fraction>();	// entries that do not fit in longs
+	private int count = 0;			// entries read so far
+	private long nonZeros = 0;
+	private int rows = 0;
+	private int cols = -1;			// set by the first row
+	private int augIndex = -1;		// set by the first row, if it has a |
+	private int rowEntries = 0;		// entries read so far in the current row
+	private int rowAugIndex = -1;	// entries before the | in the current row
+	private int line = 1;
+	private long numerator;			// last value parsed by parseDecimal
+	private long denominator;
+
+	/**
+	 * Constructor.
+	 * @param in where to read the text from
+	 */
+	private MatrixReader(Reader in) {
+		this.in = in;
+	} // MatrixReader
+
+	/**
+	 * Reads a matrix. The input is read to its end but not closed.
+	 * @param in where to read the text from
+	 * @return an AugmentedMatrix if the rows contain a |, a Matrix otherwise. The storage is chosen
+	 * from the number of non-zero entries, as for the Fraction[][] constructor
+	 * @throws IOException if in cannot be read
+	 * @throws NumberFormatException if an entry is not a number, or has a denominator of 0
+	 * @throws DimensionMismatchException if the rows are not all the same length, split at different columns,
+	 * or have nothing after the |
+	 * @throws IllegalArgumentException if the input has no entries
+	 */
+	public static Matrix read(Reader in) throws IOException {
+		return new MatrixReader(in).read();
+	} // read
+
+	/**
+	 * Reads every row, then builds the storage.
+	 * @return the matrix read
+	 * @throws IOException if the input cannot be read
+	 */
+	private Matrix read() throws IOException {
+		int c;
+
+		while ((c = next()) != -1) {
+			if (c == '\n') {
+				endToken();
+				endRow();
+				line++;
+			} else if (c == ',' || c == ';' || c == ' ' || c == '\t' || c == '\r') {
+				endToken();
+			} else if (c == '|') {
+				endToken();
+				if (rowAugIndex != -1) {
+					throw new DimensionMismatchException("line " + line + " has more than one |");
+				} // if
+				rowAugIndex = rowEntries;
+			} else if (c != '"') {
+				// Matrix.toString can run a wide entry into a negative one, as in 1000-89
+				if ((c == '-' || c == '+') && token.length() > 0 && isDigitOrPoint(token.charAt(token.length() - 1))) {
+					endToken();
+				} // if
+				token.append((char)c);
+			} // else if
+		} // while
+		endToken();
+		endRow();
+
+		if (rows == 0) {
+			throw new IllegalArgumentException("the input has no entries");
+		} // if
+
+		MatrixStorage storage = build();
+		return (augIndex >= 0)? new AugmentedMatrix(storage, augIndex) : new Matrix(storage);
+	} // read
+
+	/**
+	 * Gets the next character of the input, reading another chunk when the buffer runs out.
+	 * @return the next character, or -1 at the end of the input
+	 * @throws IOException if the input cannot be read
+	 */
+	private int next() throws IOException {
+		if (position == limit) {
+			limit = in.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			} // if
+		} // if
+		return buffer[position++];
+	} // next
+
+	/**
+	 * Checks if a character can end a number, so a sign after it starts a new entry.
+	 * @param c character to check
+	 * @return true if c is a digit or a decimal point
+	 */
+	private static boolean isDigitOrPoint(char c) {
+		return (c >= '0' && c <= '9') || c == '.';
+	} // isDigitOrPoint
+
+	/**
+	 * Parses the current token, if there is one, and adds it to the current row.
+	 */
+	private void endToken() {
+		if (token.length() == 0) {
+			return;
+		} // if
+
+		if (count == numerators.length) {
+			numerators = Arrays.copyOf(numerators, 2 * count);
+			denominators = Arrays.copyOf(denominators, 2 * count);
+		} // if
+
+		try {
+			parseFraction();
+			numerators[count] = numerator;
+			denominators[count] = denominator;
+		} catch (ArithmeticException e) {
+			// too large for longs; the storage keeps it as a Fraction
+			Fraction f = parseBig();
+			big.put(count, f);
+			numerators[count] = f.signum();
+			denominators[count] = 1;
+		} // catch
+
+		if (numerators[count] != 0) {
+			nonZeros++;
+		} // if
+		count++;
+		rowEntries++;
+		token.setLength(0);
+	} // endToken
+
+	/**
+	 * Finishes the current row, checking it against the first row. Empty rows are skipped.
+	 */
+	private void endRow() {
+		if (rowEntries == 0) {
+			if (rowAugIndex != -1) {
+				throw new NumberFormatException("line " + line + " has a | but no entries");
+			} // if
+			return;
+		} // if
+
+		if (cols == -1) {
+			if (rowAugIndex == rowEntries) {
+				throw new DimensionMismatchException("line " + line + " has no entries after the |");
+			} // if
+			cols = rowEntries;
+			augIndex = rowAugIndex;
+		} else if (rowEntries != cols) {
+			throw new DimensionMismatchException("line " + line + " has " + rowEntries + " entries, not " + cols);
+		} else if (rowAugIndex != augIndex) {
+			throw new DimensionMismatchException("line " + line + " splits the augmented columns after entry " + rowAugIndex + ", not " + augIndex);
+		} // else if
+
+		rows++;
+		rowEntries = 0;
+		rowAugIndex = -1;
+	} // endRow
+
+	/**
+	 * Parses the current token as a fraction in longs, reduced with a positive denominator.
+	 * Each side of a / may be a decimal.
+	 * @throws ArithmeticException if the value does not fit in longs
+	 * @throws NumberFormatException if the token is not a number, or has a denominator of 0
+	 */
+	private void parseFraction() {
+		int slash = token.indexOf("/");
+		if (slash < 0) {
+			parseDecimal(0, token.length());
+			return;
+		} // if
+
+		parseDecimal(slash + 1, token.length());
+		long qn = numerator;
+		long qd = denominator;
+		if (qn == 0) {
+			throw new NumberFormatException("denominator of 0 in " + token + " on line " + line);
+		} // if
+		parseDecimal(0, slash);
+
+		// (pn/pd) / (qn/qd) = (pn * qd) / (pd * qn)
+		long g1 = Fraction.gcd(numerator, qn);
+		long g2 = Fraction.gcd(qd, denominator);
+		long n = Math.multiplyExact(numerator / g1, qd / g2);
+		long d = Math.multiplyExact(denominator / g2, qn / g1);
+		numerator = (d < 0)? Math.negateExact(n) : n;
+		denominator = Math.absExact(d);
+	} // parseFraction
+
+	/**
+	 * Parses part of the current token as an exact decimal: an optional sign, digits with an optional
+	 * decimal point, and an optional exponent. Sets numerator and denominator to the value in lowest terms.
+	 * @param start first character
+	 * @param end one past the last character
+	 * @throws ArithmeticException if the value does not fit in longs
+	 * @throws NumberFormatException if the characters are not a number
+	 */
+	private void parseDecimal(int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (token.charAt(i) == '-' || token.charAt(i) == '+')) {
+			negative = (token.charAt(i) == '-');
+			i++;
+		} // if
+
+		long mantissa = 0;
+		int scale = 0;		// digits after the decimal point, less the exponent
+		boolean digits = false;
+		boolean point = false;
+		for (; i < end; i++) {
+			char c = token.charAt(i);
+			if (c >= '0' && c <= '9') {
+				mantissa = Math.addExact(Math.multiplyExact(mantissa, 10), c - '0');
+				digits = true;
+				if (point) {
+					scale++;
+				} // if
+			} else if (c == '.' && !point) {
+				point = true;
+			} else if ((c == 'e' || c == 'E') && digits) {
+				scale = Math.subtractExact(scale, parseExponent(i + 1, end));
+				break;
+			} else {
+				throw new NumberFormatException("\"" + token + "\" on line " + line + " is not a number");
+			} // else
+		} // for i
+
+		if (!digits) {
+			throw new NumberFormatException("\"" + token + "\" on line " + line + " is not a number");
+		} // if
+
+		long n = mantissa;
+		long d = 1;
+		if (n != 0) {
+			for (; scale > 0; scale--) {
+				d = Math.multiplyExact(d, 10);
+			} // for
+			for (; scale < 0; scale++) {
+				n = Math.multiplyExact(n, 10);
+			} // for
+		} // if
+
+		long g = Fraction.gcd(n, d);
+		numerator = negative? -(n / g) : n / g;
+		denominator = d / g;
+	} // parseDecimal
+
+	/**
+	 * Parses the exponent of a decimal: an optional sign and digits.
+	 * @param start first character after the e
+	 * @param end one past the last character
+	 * @return the exponent
+	 * @throws ArithmeticException if the exponent does not fit in an int
+	 * @throws NumberFormatException if the characters are not an integer
+	 */
+	private int parseExponent(int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (token.charAt(i) == '-' || token.charAt(i) == '+')) {
+			negative = (token.charAt(i) == '-');
+			i++;
+		} // if
+		if (i == end) {
+			throw new NumberFormatException("\"" + token + "\" on line " + line + " has no exponent");
+		} // if
+
+		int output = 0;
+		for (; i < end; i++) {
+			char c = token.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new NumberFormatException("\"" + token + "\" on line " + line + " is not a number");
+			} // if
+			output = Math.addExact(Math.multiplyExact(output, 10), c - '0');
+		} // for i
+
+		return negative? -output : output;
+	} // parseExponent
+
+	/**
+	 * Parses the current token with BigDecimal, for values that do not fit in longs.
+	 * @return the value of the token
+	 * @throws NumberFormatException if the token is not a number, or has a denominator of 0
+	 */
+	private Fraction parseBig() {
+		String text = token.toString();
+		int slash = text.indexOf('/');
+
+		try {
+			BigInteger [] p = bigDecimal(text.substring(0, (slash < 0)? text.length() : slash));
+			if (slash < 0) {
+				return new Fraction(p[0], p[1]);
+			} // if
+			BigInteger [] q = bigDecimal(text.substring(slash + 1));
+			if (q[0].signum() == 0) {
+				throw new NumberFormatException("denominator of 0 in " + text + " on line " + line);
+			} // if
+			return new Fraction(p[0].multiply(q[1]), p[1].multiply(q[0]));
+		} catch (NumberFormatException e) {
+			throw new NumberFormatException("\"" + text + "\" on line " + line + " is not a number");
+		} // catch
+	} // parseBig
+
+	/**
+	 * Splits a decimal into an integer numerator and a power of 10 denominator.
+	 * @param text the decimal
+	 * @return the numerator and denominator
+	 */
+	private static BigInteger [] bigDecimal(String text) {
+		BigDecimal value = new BigDecimal(text);
+		if (value.scale() <= 0) {
+			return new BigInteger[] {value.toBigIntegerExact(), BigInteger.ONE};
+		} // if
+		return new BigInteger[] {value.unscaledValue(), BigInteger.TEN.pow(value.scale())};
+	} // bigDecimal
+
+	/**
+	 * Moves the entries into storage: sparse if the matrix is large and mostly 0, packed otherwise.
+	 * The packed arrays become the storage without another copy when they are exactly full.
+	 * @return storage holding every entry
+	 */
+	private MatrixStorage build() {
+		long size = (long)rows * cols;
+
+		if (size >= MatrixStorage.SPARSE_MIN_ENTRIES && nonZeros <= MatrixStorage.SPARSE_DENSITY * size) {
+			SparseStorage output = new SparseStorage(rows, cols);
+			for (int index = 0; index < count; index++) {
+				if (numerators[index] != 0) {
+					Fraction f = big.get(index);
+					output.set(index / cols, index % cols, (f != null)? f : Fraction.valueOf(numerators[index], denominators[index]));
+				} // if
+			} // for index
+			return output;
+		} // if
+
+		if (numerators.length != count) {
+			numerators = Arrays.copyOf(numerators, count);
+			denominators = Arrays.copyOf(denominators, count);
+		} // if
+		PackedStorage output = new PackedStorage(rows, cols, numerators, denominators);
+		for (Integer index : big.keySet()) {
+			output.set(index / cols, index % cols, big.get(index));
+		} // for index
+		return output;
+	} // build
+
+} // MatrixReader
@@ -0,0 +1,326 @@
+/**
+ * Holds the entries of a Matrix. Subclasses choose how entries are laid out in memory;
+ * the row operations here work through get and set, and can be overridden with faster versions.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+abstract class MatrixStorage {
+	static final double SPARSE_DENSITY = 0.1;	// fraction of non-zero entries at or below which sparse storage is used
+	static final int SPARSE_MIN_ENTRIES = 1024;	// matrices smaller than this are always packed
+	private int modCount = 0;	// counts writes, so results computed from the entries can tell when they are out of date
+	private volatile ArrayList<WeakReference<ViewStorage>> views = null;	// views that copy their entries before this changes; guarded by this
+
+	/**
+	 * Creates storage for a 2D fraction array, choosing the layout from the number of non-zero entries:
+	 * sparse storage for large, mostly 0 matrices and packed storage otherwise. Null entries are stored as 0.
+	 * @param input 2D fraction array
+	 * @return storage holding a copy of the entries
+	 */
+	static MatrixStorage create(Fraction [][] input) {
+		long size = (long)input.length * input[0].length;
+		long nonZeros = 0;
+
+		for (int i = 0; i < input.length; i++) {
+			for (int j = 0; j < input[i].length; j++) {
+				if (input[i][j] != null && !input[i][j].isZero()) {
+					nonZeros++;
+				} // if
+			} // for j
+		} // for i
+
+		if (size >= SPARSE_MIN_ENTRIES && nonZeros <= SPARSE_DENSITY * size) {
+			return new SparseStorage(input);
+		} // if
+		return new PackedStorage(input);
+	} // create
+
+	/**
+	 * Gets the number of times the entries have been changed.
+	 * @return modification count
+	 */
+	int modCount() {
+		return modCount;
+	} // modCount
+
+	/**
+	 * Records that the entries are about to change. Every method that writes entries calls this before writing,
+	 * so views of this storage can copy the entries they show first.
+	 */
+	void modified() {
+		modCount++;
+		if (views != null) {
+			ArrayList<WeakReference<ViewStorage>> detaching;
+			synchronized (this) {
+				detaching = views;
+				views = null;
+			} // synchronized
+			if (detaching == null) {
+				return;
+			} // if
+			for (WeakReference<ViewStorage> view : detaching) {
+				if (view.get() != null) {
+					view.get().detach();
+				} // if
+			} // for view
+		} // if
+	} // modified
+
+	/**
+	 * Records a view of this storage, which copies its entries before this storage changes.
+	 * Views that are no longer reachable are forgotten. Views may be made on several threads at once.
+	 * @param view the view
+	 */
+	synchronized void addView(ViewStorage view) {
+		if (views == null) {
+			views = new ArrayList<WeakReference<ViewStorage>>();
+		} // if
+		views.removeIf(v -> v.get() == null);
+		views.add(new WeakReference<ViewStorage>(view));
+	} // addView
+
+	/**
+	 * Forgets a view of this storage.
+	 * @param view the view
+	 */
+	synchronized void removeView(ViewStorage view) {
+		if (views != null) {
+			views.removeIf(v -> v.get() == null || v.get() == view);
+		} // if
+	} // removeView
+
+	/**
+	 * Gets the number of rows.
+	 * @return number of rows
+	 */
+	abstract int numRows();
+
+	/**
+	 * Gets the number of columns.
+	 * @return number of columns
+	 */
+	abstract int numCols();
+
+	/**
+	 * Gets an entry.
+	 * @param row row location
+	 * @param col column location
+	 * @return the fraction in the given location
+	 */
+	abstract Fraction get(int row, int col);
+
+	/**
+	 * Sets an entry.
+	 * @param row row location
+	 * @param col column location
+	 * @param f new value of the entry
+	 */
+	abstract void set(int row, int col, Fraction f);
+
+	/**
+	 * Copies the storage into new storage of the same type.
+	 * @return a copy of the storage
+	 */
+	abstract MatrixStorage copy();
+
+	/**
+	 * Checks if an entry is 0.
+	 * @param row row location
+	 * @param col column location
+	 * @return true if the entry is 0, false otherwise
+	 */
+	boolean isZero(int row, int col) {
+		return get(row, col).isZero();
+	} // isZero
+
+	/**
+	 * Gets the column of the first non-zero entry in a row.
+	 * @param row row to search
+	 * @return column of the leading entry, or numCols() if the row is all 0
+	 */
+	int leadingColumn(int row) {
+		int col = 0;
+		while (col < numCols() && isZero(row, col)) {
+			col++;
+		} // while
+		return col;
+	} // leadingColumn
+
+	/**
+	 * Gets the column of the next non-zero entry in a row, so the non-zero entries can be visited in order.
+	 * @param row row to search
+	 * @param col first column to check
+	 * @return the first column at or after col with a non-zero entry, or numCols() if there is none
+	 */
+	int nextNonZero(int row, int col) {
+		while (col < numCols() && isZero(row, col)) {
+			col++;
+		} // while
+		return col;
+	} // nextNonZero
+
+	/**
+	 * Chooses the pivot for a column during elimination: the first row at or below fromRow
+	 * with a non-zero entry in the column.
+	 * @param col column to pivot on
+	 * @param fromRow first row that may be chosen
+	 * @return the pivot row, or numRows() if every candidate entry is 0
+	 */
+	int pivotRow(int col, int fromRow) {
+		int row = fromRow;
+		while (row < numRows() && isZero(row, col)) {
+			row++;
+		} // while
+		return row;
+	} // pivotRow
+
+	/**
+	 * Frees what the storage holds outside the heap, such as a scratch file, for temporary storage that will
+	 * not be used again. The storage cannot be used afterwards. Does nothing for storage on the heap.
+	 */
+	void release() {
+	} // release
+
+	/**
+	 * Determines if several threads may read the entries at once, as long as none of them writes.
+	 * @return true unless reading changes state inside the storage, such as a cache
+	 */
+	boolean concurrentReads() {
+		return true;
+	} // concurrentReads
+
+	/**
+	 * Swaps two rows.
+	 * @param row1
+	 * @param row2
+	 */
+	void swapRows(int row1, int row2) {
+		for (int j = 0; j < numCols(); j++) {
+			Fraction temp = get(row1, j);
+			set(row1, j, get(row2, j));
+			set(row2, j, temp);
+		} // for j
+	} // swapRows
+
+	/**
+	 * Adds a multiple of one row to another: target = target + coefficient * source.
+	 * Columns left of fromCol are not changed.
+	 * @param target the row that is changed
+	 * @param source the row that is added
+	 * @param coefficient multiple of the source row
+	 * @param fromCol first column to update
+	 */
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		FractionAccumulator sum = new FractionAccumulator();
+
+		for (int j = fromCol; j < numCols(); j++) {
+			if (!isZero(source, j)) {
+				sum.set(get(target, j));
+				sum.multiplyAdd(coefficient, get(source, j));
+				set(target, j, sum.toFraction());
+			} // if
+		} // for j
+	} // addRowMultiple
+
+	/**
+	 * Multiplies a row by a constant. Columns left of fromCol are not changed.
+	 * @param row the row to scale
+	 * @param coefficient value to multiply by
+	 * @param fromCol first column to update
+	 */
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		for (int j = fromCol; j < numCols(); j++) {
+			if (!isZero(row, j)) {
+				set(row, j, get(row, j).multiply(coefficient));
+			} // if
+		} // for j
+	} // scaleRow
+
+	/**
+	 * Finds the dot product of a row of this storage and a column of another.
+	 * @param row row of this storage
+	 * @param other storage holding the column
+	 * @param col column of the other storage
+	 * @return dot product of the row and column
+	 */
+	Fraction dotProduct(int row, MatrixStorage other, int col) {
+		FractionAccumulator sum = new FractionAccumulator();
+
+		for (int k = 0; k < numCols(); k++) {
+			if (!isZero(row, k) && !other.isZero(k, col)) {
+				sum.multiplyAdd(get(row, k), other.get(k, col));
+			} // if
+		} // for k
+
+		return sum.toFraction();
+	} // dotProduct
+
+	/**
+	 * Multiplies this storage by another into new packed storage, tiled and split across threads
+	 * for large products.
+	 * @param other right hand storage, with as many rows as this has columns
+	 * @return storage holding the product
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		PackedStorage output = new PackedStorage(numRows(), other.numCols());
+		MultiplyTask.multiply(this, other, output);
+		return output;
+	} // multiply
+
+	/**
+	 * Copies the transpose of this storage into new packed storage.
+	 * @return storage holding the transpose
+	 */
+	MatrixStorage transpose() {
+		PackedStorage output = new PackedStorage(numCols(), numRows());
+
+		for (int i = 0; i < numRows(); i++) {
+			for (int j = 0; j < numCols(); j++) {
+				if (!isZero(i, j)) {
+					output.set(j, i, get(i, j));
+				} // if
+			} // for j
+		} // for i
+
+		return output;
+	} // transpose
+
+	/**
+	 * Multiplies a block of this storage by a block of another and adds the result to an output storage:
+	 * out[i][j] += this[i][k] * other[k][j] for rowStart <= i < rowEnd, innerStart <= k < innerEnd
+	 * and colStart <= j < colEnd. Rows of the output are only touched inside the given range.
+	 * @param other right hand storage
+	 * @param out storage the products are added to
+	 * @param rowStart first row of this storage and the output
+	 * @param rowEnd one past the last row
+	 * @param innerStart first column of this storage and row of the other
+	 * @param innerEnd one past the last inner index
+	 * @param colStart first column of the other storage and the output
+	 * @param colEnd one past the last column
+	 */
+	void multiplyBlock(MatrixStorage other, MatrixStorage out, int rowStart, int rowEnd, int innerStart, int innerEnd, int colStart, int colEnd) {
+		FractionAccumulator sum = new FractionAccumulator();
+
+		for (int i = rowStart; i < rowEnd; i++) {
+			for (int k = innerStart; k < innerEnd; k++) {
+				if (isZero(i, k)) {
+					continue;
+				} // if
+				Fraction a = get(i, k);
+				for (int j = colStart; j < colEnd; j++) {
+					if (!other.isZero(k, j)) {
+						sum.set(out.get(i, j));
+						sum.multiplyAdd(a, other.get(k, j));
+						out.set(i, j, sum.toFraction());
+					} // if
+				} // for j
+			} // for k
+		} // for i
+	} // multiplyBlock
+
+} // MatrixStorage
@@ -63,7 +63,9 @@ public class MatrixTester {
 		System.out.println("Matrix:");
 		System.out.println(test);
 		System.out.println();
-		System.out.println("Transposed Matrix:\n" + test.findTranspose());
+		Matrix transpose = test.findTranspose();
+		System.out.println("Transposed Matrix:\n" + transpose);
+		transpose.releaseView();
 	} // testTranspose
 	
 	private static void testInverse(Matrix test) {
@@ -98,8 +100,12 @@ public class MatrixTester {
 		System.out.println("U:");
 		System.out.println(test.getU());
 		System.out.println();
-		System.out.println("Verify LU = original matrix:");
+		System.out.println("P:");
+		System.out.println(test.getP());
+		System.out.println();
+		System.out.println("Verify LU = PA:");
 		System.out.println(test.getL().multiply(test.getU()));
+		System.out.println(test.getP().multiply(test));
 	} // testSomething
 	
 	private static void testRowReduction(Matrix test) {
@@ -0,0 +1,173 @@
+/**
+ * Writes matrices to any Appendable, such as a Writer or a StringBuilder, one entry at a time,
+ * so the whole matrix is never held as one string. For large outputs, pass a buffered Writer.
+ * Two formats are written: aligned text, the same as Matrix.toString, and comma separated values
+ * that MatrixReader reads back exactly.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+
+public class MatrixWriter {
+
+	/**
+	 * Constructor. Not used; every method is static.
+	 */
+	private MatrixWriter() {
+	} // MatrixWriter
+
+	/**
+	 * Writes the matrix as comma separated values, one row per line. Integers are written without a
+	 * denominator, other entries as p/q. The columns of an augmented matrix are split with | instead of a comma.
+	 * @param matrix matrix to write
+	 * @param out where to write it
+	 * @throws IOException if out cannot be written
+	 */
+	public static void writeCSV(Matrix matrix, Appendable out) throws IOException {
+		MatrixStorage m = matrix.m;
+		int augIndex = (matrix instanceof AugmentedMatrix)? ((AugmentedMatrix)matrix).getAugIndex() : -1;
+		StringBuilder entry = new StringBuilder();	// reused for every entry, so longs are not turned into strings
+
+		for (int i = 0; i < m.numRows(); i++) {
+			for (int j = 0; j < m.numCols(); j++) {
+				if (j > 0) {
+					out.append((j == augIndex)? '|' : ',');
+				} // if
+				entry.setLength(0);
+				appendFraction(entry, m.get(i, j), true);
+				out.append(entry);
+			} // for j
+			out.append('\n');
+		} // for i
+	} // writeCSV
+
+	/**
+	 * Writes the matrix as aligned text, one row per line, exactly as Matrix.toString does.
+	 * Makes one pass to find the widest entry, then writes row by row.
+	 * @param matrix matrix to write
+	 * @param out where to write it
+	 * @throws IOException if out cannot be written
+	 */
+	public static void write(Matrix matrix, Appendable out) throws IOException {
+		MatrixStorage m = matrix.m;
+		boolean displayDoubles = matrix.displayDoubles;
+		int augIndex = (matrix instanceof AugmentedMatrix)? ((AugmentedMatrix)matrix).getAugIndex() : -1;
+		boolean ints = true;
+		boolean negativeFirstRow = false;
+		int maxChars = 0;
+
+		// determines if the entire matrix is integers, and finds the highest number of characters in any entry
+		for (int i = 0; i < m.numRows(); i++) {
+			if (!m.get(i, 0).isPositive()) {
+				negativeFirstRow = true;
+			} // if
+			for (int j = 0; j < m.numCols(); j++) {
+				Fraction f = m.get(i, j);
+				ints = ints && f.isInteger();
+				int length = fractionLength(f);
+				if (length > maxChars) {
+					maxChars = displayDoubles? Double.toString(f.getDouble()).length() : length;
+				} // if
+			} // for j
+		} // for i
+
+		// if all the entries are integers, remove the "/1"
+		if (ints) {
+			maxChars -= 2;
+		} // if
+
+		StringBuilder entry = new StringBuilder();
+		for (int i = 0; i < m.numRows(); i++) {
+			for (int j = 0; j < m.numCols(); j++) {
+				Fraction f = m.get(i, j);
+				if (negativeFirstRow && j == 0 && f.isPositive()) {
+					out.append(' ');
+				} // if
+
+				// the width leaves room for a minus sign, and fractions are followed by a space
+				entry.setLength(0);
+				int width;
+				if (ints) {
+					appendFraction(entry, f, true);
+					width = f.isPositive()? maxChars : maxChars + 1;
+				} else if (displayDoubles) {
+					entry.append(f.getDouble());
+					width = f.isPositive()? maxChars : maxChars + 1;
+				} else {
+					appendFraction(entry, f, false);
+					width = f.isPositive()? maxChars - 1 : maxChars;
+				} // else
+				out.append(entry);
+				for (int k = entry.length(); k < width; k++) {
+					out.append(' ');
+				} // for k
+				if (!ints) {
+					out.append(' ');
+				} // if
+
+				boolean nextPositive = j + 1 < m.numCols() && m.get(i, j + 1).isPositive();
+				if (j == augIndex - 1) {
+					out.append(nextPositive? " | " : " |");
+				} else if (nextPositive) {
+					out.append(' ');
+				} // else if
+			} // for j
+			if (i != m.numRows() - 1) {
+				out.append('\n');
+			} // if
+		} // for i
+	} // write
+
+	/**
+	 * Appends a fraction as p/q without making a string of it.
+	 * @param sb where to append it
+	 * @param f fraction to append
+	 * @param dropOne true to write integers without the /1
+	 */
+	private static void appendFraction(StringBuilder sb, Fraction f, boolean dropOne) {
+		if (f.isBig()) {
+			sb.append(f.getBigNumerator());
+			if (!dropOne || !f.isInteger()) {
+				sb.append('/').append(f.getBigDenominator());
+			} // if
+		} else {
+			sb.append(f.getNumerator());
+			if (!dropOne || f.getDenominator() != 1) {
+				sb.append('/').append(f.getDenominator());
+			} // if
+		} // else
+	} // appendFraction
+
+	/**
+	 * Gets the length of Fraction.toString() without making the string.
+	 * @param f fraction to measure
+	 * @return number of characters in p/q
+	 */
+	private static int fractionLength(Fraction f) {
+		if (f.isBig()) {
+			return f.getBigNumerator().toString().length() + 1 + f.getBigDenominator().toString().length();
+		} // if
+		return length(f.getNumerator()) + 1 + length(f.getDenominator());
+	} // fractionLength
+
+	/**
+	 * Gets the number of characters in a long written in decimal, including a minus sign.
+	 * @param x number to measure
+	 * @return number of characters
+	 */
+	private static int length(long x) {
+		int output = (x < 0)? 2 : 1;
+		x = (x < 0)? -(x / 10) : x / 10;	// divide first so Long.MIN_VALUE does not overflow
+
+		while (x != 0) {
+			x /= 10;
+			output++;
+		} // while
+
+		return output;
+	} // length
+
+} // MatrixWriter
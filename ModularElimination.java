@@ -0,0 +1,287 @@
+/**
+ * Multi-modular determinant and rank. Each row of the matrix is scaled to clear its denominators,
+ * then the integer matrix is reduced modulo 62-bit primes using only long arithmetic, so entries never grow.
+ * The determinant is rebuilt from its residues with the Chinese Remainder Theorem, using enough primes
+ * that their product is more than twice the Hadamard bound. The runs for different primes are independent
+ * and run in parallel on the common fork-join pool.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+class ModularElimination {
+	private static final int RANK_PRIMES = 2;						// random primes tried by rank()
+	private static final ArrayList<Long> primes = new ArrayList<Long>();	// largest 62-bit primes, found as needed
+	private static final Random random = new Random();
+
+	private final int rows;
+	private final int cols;
+	private long [][] a = null;			// integer matrix, if every entry fits in a long
+	private BigInteger [][] big = null;	// integer matrix otherwise
+	private BigInteger scale = BigInteger.ONE;	// product of the row multipliers used to clear denominators
+
+	/**
+	 * Constructor. Clears the denominators of a copy of the given matrix; the matrix itself is not changed.
+	 * @param matrix matrix to reduce
+	 */
+	ModularElimination(Matrix matrix) {
+		rows = matrix.numRows();
+		cols = matrix.numCols();
+		big = new BigInteger[rows][cols];
+		boolean fits = true;
+
+		// scale each row by the lcm of its denominators
+		for (int i = 0; i < rows; i++) {
+			BigInteger lcm = BigInteger.ONE;
+			for (int j = 0; j < cols; j++) {
+				BigInteger d = matrix.getFrac(i, j).getBigDenominator();
+				lcm = lcm.divide(lcm.gcd(d)).multiply(d);
+			} // for j
+			for (int j = 0; j < cols; j++) {
+				Fraction f = matrix.getFrac(i, j);
+				big[i][j] = f.getBigNumerator().multiply(lcm.divide(f.getBigDenominator()));
+				fits = fits && big[i][j].bitLength() < 64;
+			} // for j
+			scale = scale.multiply(lcm);
+		} // for i
+
+		if (fits) {
+			a = new long[rows][cols];
+			for (int i = 0; i < rows; i++) {
+				for (int j = 0; j < cols; j++) {
+					a[i][j] = big[i][j].longValue();
+				} // for j
+			} // for i
+			big = null;
+		} // if
+	} // ModularElimination
+
+	/**
+	 * Finds the determinant. Uses as many primes as the Hadamard bound of the integer matrix requires.
+	 * @return the exact determinant, or 0 if the matrix is not square
+	 */
+	public Fraction det() {
+		return det(null);
+	} // det
+
+	/**
+	 * Finds the determinant, reporting how many primes are used.
+	 * @param listener receives the number of primes, or null for no tracing
+	 * @return the exact determinant, or 0 if the matrix is not square
+	 */
+	public Fraction det(StepListener listener) {
+		if (rows != cols) {
+			return Fraction.valueOf(0);
+		} // if
+
+		// |det| <= product of the lengths of the rows; the primes must cover twice that to recover the sign
+		long boundBits = 1;
+		for (int i = 0; i < rows; i++) {
+			BigInteger squares = BigInteger.ZERO;
+			for (int j = 0; j < cols; j++) {
+				BigInteger entry = (a != null)? BigInteger.valueOf(a[i][j]) : big[i][j];
+				squares = squares.add(entry.multiply(entry));
+			} // for j
+			if (squares.signum() == 0) {
+				return Fraction.valueOf(0);
+			} // if
+			boundBits += (squares.bitLength() + 1) / 2;
+		} // for i
+
+		// every prime is larger than 2^61
+		int count = (int)(boundBits / 61 + 1);
+		long [] moduli = largestPrimes(count);
+		long [] residues = new long[count];
+		IntStream.range(0, count).parallel().forEach(k -> residues[k] = reduce(moduli[k], true));
+
+		if (listener != null) {
+			listener.note("Determinant bound of 2^" + boundBits + ": combining residues modulo " + count + " primes", null);
+		} // if
+
+		// combine the residues one prime at a time: x = x + M * ((r - x) / M mod p)
+		BigInteger x = BigInteger.ZERO;
+		BigInteger product = BigInteger.ONE;
+		for (int k = 0; k < count; k++) {
+			BigInteger p = BigInteger.valueOf(moduli[k]);
+			BigInteger t = BigInteger.valueOf(residues[k]).subtract(x).multiply(product.modInverse(p)).mod(p);
+			x = x.add(product.multiply(t));
+			product = product.multiply(p);
+		} // for k
+
+		// the determinant is the residue closest to 0
+		if (x.shiftLeft(1).compareTo(product) > 0) {
+			x = x.subtract(product);
+		} // if
+		return new Fraction(x, scale);
+	} // det
+
+	/**
+	 * Finds the rank modulo random 62-bit primes. The rank modulo a prime is never more than the real rank,
+	 * and is less only if the prime divides every largest non-zero minor, so the largest rank found is the
+	 * real rank except with a probability far below that of a hardware error.
+	 * @return rank of the matrix
+	 */
+	public int rank() {
+		long [] moduli = new long[RANK_PRIMES];
+		for (int k = 0; k < RANK_PRIMES; k++) {
+			moduli[k] = BigInteger.valueOf((1L << 61) | random.nextLong() >>> 4).nextProbablePrime().longValue();
+		} // for k
+
+		return IntStream.range(0, RANK_PRIMES).parallel().map(k -> (int)reduce(moduli[k], false)).max().getAsInt();
+	} // rank
+
+	/**
+	 * Row reduces the integer matrix modulo a prime, working in Montgomery form so each product
+	 * is reduced without a division.
+	 * @param p an odd prime between 2^61 and 2^62
+	 * @param det true to return the determinant modulo p, false to return the rank modulo p
+	 * @return the determinant or the rank modulo p
+	 */
+	private long reduce(long p, boolean det) {
+		long negInverse = negativeInverse(p);
+		long r2 = BigInteger.ONE.shiftLeft(128).mod(BigInteger.valueOf(p)).longValue();
+		long [][] b = new long[rows][cols];
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				long entry = (a != null)? Math.floorMod(a[i][j], p) : big[i][j].mod(BigInteger.valueOf(p)).longValue();
+				b[i][j] = montgomery(entry, r2, p, negInverse);
+			} // for j
+		} // for i
+
+		long output = montgomery(1, r2, p, negInverse);
+		int rank = 0;
+
+		for (int col = 0; col < cols && rank < rows; col++) {
+			int pivot = rank;
+			while (pivot < rows && b[pivot][col] == 0) {
+				pivot++;
+			} // while
+
+			if (pivot == rows) {
+				if (det) {
+					return 0;
+				} // if
+				continue;
+			} else if (pivot != rank) {
+				long [] temp = b[pivot];
+				b[pivot] = b[rank];
+				b[rank] = temp;
+				output = p - output;
+			} // else if
+
+			long [] pivotRow = b[rank];
+			output = montgomery(output, pivotRow[col], p, negInverse);
+
+			// take the pivot xR out of Montgomery form, invert it, and put x^-1 back in as x^-1 R
+			long inverse = montgomery(inverse(montgomery(pivotRow[col], 1, p, negInverse), p), r2, p, negInverse);
+			for (int i = rank + 1; i < rows; i++) {
+				long [] row = b[i];
+				if (row[col] == 0) {
+					continue;
+				} // if
+				long factor = montgomery(row[col], inverse, p, negInverse);
+				for (int j = col + 1; j < cols; j++) {
+					long difference = row[j] - montgomery(factor, pivotRow[j], p, negInverse);
+					row[j] = (difference < 0)? difference + p : difference;
+				} // for j
+				row[col] = 0;
+			} // for i
+
+			rank++;
+		} // for col
+
+		return det? montgomery(output, 1, p, negInverse) : rank;
+	} // reduce
+
+	/**
+	 * Montgomery multiplication with R = 2^64: finds x * y / R mod p.
+	 * @param x first factor, 0 <= x < p
+	 * @param y second factor, 0 <= y < p
+	 * @param p an odd modulus below 2^62
+	 * @param negInverse -p^-1 mod 2^64
+	 * @return x * y * R^-1 mod p
+	 */
+	static long montgomery(long x, long y, long p, long negInverse) {
+		long high = Math.multiplyHigh(x, y);
+		long low = x * y;
+		long m = low * negInverse;
+
+		// low + m * p is a multiple of 2^64, so its low word is 0 and carries out exactly when low is not 0
+		long mpHigh = Math.multiplyHigh(m, p) + ((m >> 63) & p);
+		long output = high + mpHigh + ((low != 0)? 1 : 0);
+		return (output >= p)? output - p : output;
+	} // montgomery
+
+	/**
+	 * Finds -p^-1 mod 2^64 with Newton's method; each step doubles the number of correct bits.
+	 * @param p an odd modulus
+	 * @return -p^-1 mod 2^64
+	 */
+	static long negativeInverse(long p) {
+		long inverse = p;	// correct to 3 bits, since p * p = 1 mod 8
+
+		for (int i = 0; i < 5; i++) {
+			inverse *= 2 - p * inverse;
+		} // for i
+
+		return -inverse;
+	} // negativeInverse
+
+	/**
+	 * Finds the inverse of a number modulo a prime with the extended Euclidean algorithm.
+	 * @param x number to invert, 0 < x < p
+	 * @param p prime modulus
+	 * @return x^-1 mod p
+	 */
+	static long inverse(long x, long p) {
+		long oldR = x;
+		long r = p;
+		long oldS = 1;
+		long s = 0;
+
+		while (r != 0) {
+			long q = oldR / r;
+			long temp = oldR - q * r;
+			oldR = r;
+			r = temp;
+			temp = oldS - q * s;
+			oldS = s;
+			s = temp;
+		} // while
+
+		return (oldS < 0)? oldS + p : oldS;
+	} // inverse
+
+	/**
+	 * Gets the largest primes below 2^62, finding more as needed.
+	 * @param count number of primes
+	 * @return the primes, largest first
+	 */
+	private static long [] largestPrimes(int count) {
+		long [] output = new long[count];
+
+		synchronized (primes) {
+			long candidate = primes.isEmpty()? (1L << 62) + 1 : primes.get(primes.size() - 1);
+			while (primes.size() < count) {
+				candidate -= 2;
+				if (BigInteger.valueOf(candidate).isProbablePrime(64)) {
+					primes.add(candidate);
+				} // if
+			} // while
+
+			for (int k = 0; k < count; k++) {
+				output[k] = primes.get(k);
+			} // for k
+		} // synchronized
+
+		return output;
+	} // largestPrimes
+
+} // ModularElimination
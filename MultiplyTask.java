@@ -0,0 +1,86 @@
+/**
+ * Multiplies two matrix storages using cache-sized tiles. Large products are split into
+ * blocks of output rows that run in parallel on the common fork-join pool; small products
+ * stay on the calling thread.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+class MultiplyTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	static final int TILE = 64;								// rows, columns and inner length of one tile
+	static final long PARALLEL_THRESHOLD = 64L * 64 * 64;	// multiply-adds below which a product is not split
+
+	private final MatrixStorage a;
+	private final MatrixStorage b;
+	private final MatrixStorage out;
+	private final int rowStart;
+	private final int rowEnd;
+	private final boolean parallel;		// split into subtasks; decided once, by multiply
+
+	/**
+	 * Constructor.
+	 * @param a left storage
+	 * @param b right storage
+	 * @param out output storage, all 0
+	 * @param rowStart first output row this task computes
+	 * @param rowEnd one past the last output row
+	 * @param parallel true to split the rows into subtasks, false to compute them all on this thread
+	 */
+	private MultiplyTask(MatrixStorage a, MatrixStorage b, MatrixStorage out, int rowStart, int rowEnd, boolean parallel) {
+		this.a = a;
+		this.b = b;
+		this.out = out;
+		this.rowStart = rowStart;
+		this.rowEnd = rowEnd;
+		this.parallel = parallel;
+	} // MultiplyTask
+
+	/**
+	 * Computes out = a * b. The product stays on the calling thread if a or b is in storage that only one
+	 * thread may read at a time.
+	 * @param a left storage
+	 * @param b right storage, with as many rows as a has columns
+	 * @param out output storage, all 0
+	 */
+	static void multiply(MatrixStorage a, MatrixStorage b, MatrixStorage out) {
+		long work = (long)a.numRows() * a.numCols() * b.numCols();
+		boolean parallel = work >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() >= 2
+				&& a.concurrentReads() && b.concurrentReads();
+		MultiplyTask task = new MultiplyTask(a, b, out, 0, a.numRows(), parallel);
+
+		if (parallel) {
+			ForkJoinPool.commonPool().invoke(task);
+		} else {
+			task.compute();
+		} // else
+	} // multiply
+
+	/**
+	 * Computes the rows of this task. Splits them only if multiply chose to run in parallel, so a task it
+	 * runs on the calling thread never forks onto the pool.
+	 */
+	protected void compute() {
+		if (parallel && rowEnd - rowStart > TILE) {
+			int middle = (rowStart + rowEnd) >>> 1;
+			invokeAll(new MultiplyTask(a, b, out, rowStart, middle, true), new MultiplyTask(a, b, out, middle, rowEnd, true));
+			return;
+		} // if
+
+		int inner = a.numCols();
+		int cols = b.numCols();
+
+		// go through the product tile by tile so each tile of b is reused while it is in cache
+		for (int k = 0; k < inner; k += TILE) {
+			for (int j = 0; j < cols; j += TILE) {
+				a.multiplyBlock(b, out, rowStart, rowEnd, k, Math.min(k + TILE, inner), j, Math.min(j + TILE, cols));
+			} // for j
+		} // for k
+	} // compute
+
+} // MultiplyTask
@@ -0,0 +1,356 @@
+/**
+ * Packed storage kept outside the Java heap, in direct buffers from a StorageArena. The layout is the same as
+ * PackedStorage: a numerator and a denominator per entry, row by row, with entries that do not fit in longs
+ * marked by a denominator of 0 and kept in a map. The row operations and the product work on the buffers
+ * directly with the same long arithmetic as PackedStorage, so elimination and multiplication allocate nothing
+ * on the heap per entry. Rows are split across buffers of at most 1 GB each, so a matrix is not limited
+ * to the 2 GB a single buffer can hold.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+
+class OffHeapStorage extends MatrixStorage {
+	private static final int SEGMENT = 1 << 27;	// most longs in one buffer
+
+	private final StorageArena arena;
+	private final int rows;
+	private final int cols;
+	private final int rowsPerSegment;
+	private ByteBuffer [] memory;			// what the arena handed out, given back by release; null once released
+	private LongBuffer [] numerators;		// null once released
+	private LongBuffer [] denominators;
+	private volatile ConcurrentHashMap<Long, Fraction> overflow = null;	// by row * cols + col
+
+	/**
+	 * Constructor. All entries start as 0.
+	 * @param arena arena to allocate from
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @throws IllegalArgumentException if a row does not fit in one buffer
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	OffHeapStorage(StorageArena arena, int rows, int cols) {
+		if (cols > SEGMENT) {
+			throw new IllegalArgumentException("matrix is too wide: " + rows + "x" + cols);
+		} // if
+		this.arena = arena;
+		this.rows = rows;
+		this.cols = cols;
+		rowsPerSegment = SEGMENT / cols;
+
+		int segments = (rows + rowsPerSegment - 1) / rowsPerSegment;
+		memory = new ByteBuffer[2 * segments];
+		numerators = new LongBuffer[segments];
+		denominators = new LongBuffer[segments];
+		for (int k = 0; k < segments; k++) {
+			int size = Math.min(rowsPerSegment, rows - k * rowsPerSegment) * cols;
+			memory[2 * k] = arena.allocate(8 * size);
+			memory[2 * k + 1] = arena.allocate(8 * size);
+			numerators[k] = memory[2 * k].asLongBuffer();
+			denominators[k] = memory[2 * k + 1].asLongBuffer();
+			for (int index = 0; index < size; index++) {
+				denominators[k].put(index, 1);
+			} // for index
+		} // for k
+		arena.register(this);
+	} // OffHeapStorage
+
+	int numRows() {
+		return rows;
+	} // numRows
+
+	int numCols() {
+		return cols;
+	} // numCols
+
+	Fraction get(int row, int col) {
+		LongBuffer d = denominators(row);
+		int index = offset(row) + col;
+		if (d.get(index) == 0) {
+			return overflow.get((long)row * cols + col);
+		} // if
+		return Fraction.reduced(numerators[row / rowsPerSegment].get(index), d.get(index));
+	} // get
+
+	void set(int row, int col, Fraction f) {
+		modified();
+		LongBuffer n = numerators(row);
+		LongBuffer d = denominators[row / rowsPerSegment];
+		int index = offset(row) + col;
+		if (f.isBig()) {
+			overflow().put((long)row * cols + col, f);
+			n.put(index, 0);
+			d.put(index, 0);
+		} else {
+			if (d.get(index) == 0) {
+				overflow.remove((long)row * cols + col);
+			} // if
+			n.put(index, f.getNumerator());
+			d.put(index, f.getDenominator());
+		} // else
+	} // set
+
+	boolean isZero(int row, int col) {
+		int index = offset(row) + col;
+		return (numerators(row).get(index) == 0 && denominators[row / rowsPerSegment].get(index) != 0);
+	} // isZero
+
+	/**
+	 * Copies into new storage from the same arena.
+	 */
+	MatrixStorage copy() {
+		OffHeapStorage output = new OffHeapStorage(arena, rows, cols);
+
+		for (int k = 0; k < numerators.length; k++) {
+			output.numerators[k].put(0, numerators[k], 0, numerators[k].capacity());
+			output.denominators[k].put(0, denominators[k], 0, denominators[k].capacity());
+		} // for k
+		if (overflow != null) {
+			output.overflow = new ConcurrentHashMap<Long, Fraction>(overflow);
+		} // if
+
+		return output;
+	} // copy
+
+	void swapRows(int row1, int row2) {
+		modified();
+		LongBuffer n1 = numerators(row1);
+		LongBuffer d1 = denominators[row1 / rowsPerSegment];
+		LongBuffer n2 = numerators[row2 / rowsPerSegment];
+		LongBuffer d2 = denominators[row2 / rowsPerSegment];
+		int first = offset(row1);
+		int second = offset(row2);
+
+		for (int j = 0; j < cols; j++) {
+			long temp = n1.get(first + j);
+			n1.put(first + j, n2.get(second + j));
+			n2.put(second + j, temp);
+			temp = d1.get(first + j);
+			d1.put(first + j, d2.get(second + j));
+			d2.put(second + j, temp);
+		} // for j
+
+		if (overflow != null && !overflow.isEmpty()) {
+			for (int j = 0; j < cols; j++) {
+				Fraction a = overflow.remove((long)row1 * cols + j);
+				Fraction b = overflow.remove((long)row2 * cols + j);
+				if (a != null) {
+					overflow.put((long)row2 * cols + j, a);
+				} // if
+				if (b != null) {
+					overflow.put((long)row1 * cols + j, b);
+				} // if
+			} // for j
+		} // if
+	} // swapRows
+
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		modified();
+		if (coefficient.isZero()) {
+			return;
+		} else if (coefficient.isBig()) {
+			super.addRowMultiple(target, source, coefficient, fromCol);
+			return;
+		} // else if
+
+		long cn = coefficient.getNumerator();
+		long cd = coefficient.getDenominator();
+		LongBuffer tn = numerators(target);
+		LongBuffer td = denominators[target / rowsPerSegment];
+		LongBuffer sn = numerators[source / rowsPerSegment];
+		LongBuffer sd = denominators[source / rowsPerSegment];
+		int t = offset(target);
+		int s = offset(source);
+		long [] n = new long[1];	// the entry being updated, for the packed arithmetic
+		long [] d = new long[1];
+
+		for (int j = fromCol; j < cols; j++) {
+			long bn = sn.get(s + j);
+			long bd = sd.get(s + j);
+			if (bn == 0 && bd != 0) {
+				continue;
+			} // if
+			n[0] = tn.get(t + j);
+			d[0] = td.get(t + j);
+			if (bd != 0 && d[0] != 0 && PackedStorage.multiplyAdd(n, d, 0, cn, cd, bn, bd)) {
+				tn.put(t + j, n[0]);
+				td.put(t + j, d[0]);
+			} else {
+				set(target, j, get(target, j).add(coefficient.multiply(get(source, j))));
+			} // else
+		} // for j
+	} // addRowMultiple
+
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		modified();
+		if (coefficient.isBig()) {
+			super.scaleRow(row, coefficient, fromCol);
+			return;
+		} // if
+
+		long cn = coefficient.getNumerator();
+		long cd = coefficient.getDenominator();
+		LongBuffer rn = numerators(row);
+		LongBuffer rd = denominators[row / rowsPerSegment];
+		int r = offset(row);
+		long [] n = new long[1];
+		long [] d = new long[1];
+
+		for (int j = fromCol; j < cols; j++) {
+			n[0] = rn.get(r + j);
+			d[0] = rd.get(r + j);
+			if (d[0] != 0 && PackedStorage.multiply(n, d, 0, cn, cd)) {
+				rn.put(r + j, n[0]);
+				rd.put(r + j, d[0]);
+			} else {
+				set(row, j, get(row, j).multiply(coefficient));
+			} // else
+		} // for j
+	} // scaleRow
+
+	void multiplyBlock(MatrixStorage other, MatrixStorage out, int rowStart, int rowEnd, int innerStart, int innerEnd, int colStart, int colEnd) {
+		if (!(other instanceof OffHeapStorage) || !(out instanceof OffHeapStorage)) {
+			super.multiplyBlock(other, out, rowStart, rowEnd, innerStart, innerEnd, colStart, colEnd);
+			return;
+		} // if
+
+		OffHeapStorage b = (OffHeapStorage)other;
+		OffHeapStorage c = (OffHeapStorage)out;
+		c.modified();
+		long [] n = new long[1];
+		long [] d = new long[1];
+
+		for (int i = rowStart; i < rowEnd; i++) {
+			LongBuffer an = numerators(i);
+			LongBuffer ad = denominators[i / rowsPerSegment];
+			LongBuffer cn = c.numerators(i);
+			LongBuffer cd = c.denominators[i / c.rowsPerSegment];
+			int aRow = offset(i);
+			int outRow = c.offset(i);
+			for (int k = innerStart; k < innerEnd; k++) {
+				long xn = an.get(aRow + k);
+				long xd = ad.get(aRow + k);
+				if (xn == 0 && xd != 0) {
+					continue;
+				} // if
+
+				// walk row k of the other storage, which is contiguous in memory
+				LongBuffer bn = b.numerators(k);
+				LongBuffer bd = b.denominators[k / b.rowsPerSegment];
+				int bRow = b.offset(k);
+				for (int j = colStart; j < colEnd; j++) {
+					long yn = bn.get(bRow + j);
+					long yd = bd.get(bRow + j);
+					if (yn == 0 && yd != 0) {
+						continue;
+					} // if
+					n[0] = cn.get(outRow + j);
+					d[0] = cd.get(outRow + j);
+					if (xd != 0 && yd != 0 && d[0] != 0 && PackedStorage.multiplyAdd(n, d, 0, xn, xd, yn, yd)) {
+						cn.put(outRow + j, n[0]);
+						cd.put(outRow + j, d[0]);
+					} else {
+						c.set(i, j, c.get(i, j).add(get(i, k).multiply(b.get(k, j))));
+					} // else
+				} // for j
+			} // for k
+		} // for i
+	} // multiplyBlock
+
+	/**
+	 * Multiplies into new storage from the same arena, tiled and split across threads like packed storage.
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		OffHeapStorage output = new OffHeapStorage(arena, rows, other.numCols());
+		MultiplyTask.multiply(this, other, output);
+		return output;
+	} // multiply
+
+	/**
+	 * Copies the transpose into new storage from the same arena.
+	 */
+	MatrixStorage transpose() {
+		OffHeapStorage output = new OffHeapStorage(arena, cols, rows);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (!isZero(i, j)) {
+					output.set(j, i, get(i, j));
+				} // if
+			} // for j
+		} // for i
+
+		return output;
+	} // transpose
+
+	/**
+	 * Gives the memory back to the arena, which hands it out again or lets it be freed, and drops the buffers.
+	 * Called by StorageArena.close, and for temporary copies once they are done with.
+	 */
+	void release() {
+		if (memory != null) {
+			arena.reclaim(this, memory);
+		} // if
+		memory = null;
+		numerators = null;
+		denominators = null;
+		overflow = null;
+	} // release
+
+	/**
+	 * Gets the buffer of numerators holding a row.
+	 * @param row the row
+	 * @return the buffer
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	private LongBuffer numerators(int row) {
+		if (numerators == null) {
+			arena.checkOpen();
+		} // if
+		return numerators[row / rowsPerSegment];
+	} // numerators
+
+	/**
+	 * Gets the buffer of denominators holding a row.
+	 * @param row the row
+	 * @return the buffer
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	private LongBuffer denominators(int row) {
+		if (denominators == null) {
+			arena.checkOpen();
+		} // if
+		return denominators[row / rowsPerSegment];
+	} // denominators
+
+	/**
+	 * Gets the index of the first entry of a row within its buffers.
+	 * @param row the row
+	 * @return index of column 0
+	 */
+	private int offset(int row) {
+		return (row % rowsPerSegment) * cols;
+	} // offset
+
+	/**
+	 * Gets the map of entries that do not fit in longs, creating it if needed.
+	 * @return map from row * cols + col to entry
+	 */
+	private ConcurrentHashMap<Long, Fraction> overflow() {
+		if (overflow == null) {
+			synchronized (this) {
+				if (overflow == null) {
+					overflow = new ConcurrentHashMap<Long, Fraction>();
+				} // if
+			} // synchronized
+		} // if
+		return overflow;
+	} // overflow
+
+} // OffHeapStorage
@@ -0,0 +1,445 @@
+/**
+ * Matrix storage that keeps every entry as a long numerator and denominator in two flat,
+ * row-major arrays. Entries that no longer fit in longs are kept as Fraction objects on the side,
+ * marked by a denominator of 0 in the array.
+ * Row operations work directly on the arrays and do not allocate unless a value overflows.
+ * Different rows may be written by different threads at the same time.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+class PackedStorage extends MatrixStorage {
+	private final int rows;
+	private final int cols;
+	private final long [] numerators;
+	private final long [] denominators;
+	private volatile ConcurrentHashMap<Integer, Fraction> overflow = null;
+
+	/**
+	 * Constructor. All entries start as 0.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 */
+	PackedStorage(int rows, int cols) {
+		if ((long)rows * cols > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("matrix is too large: " + rows + "x" + cols);
+		} // if
+		this.rows = rows;
+		this.cols = cols;
+		numerators = new long[rows * cols];
+		denominators = new long[rows * cols];
+		Arrays.fill(denominators, 1);
+	} // PackedStorage
+
+	/**
+	 * Constructor. Copies a 2D fraction array; null entries are stored as 0.
+	 * @param input 2D fraction array
+	 */
+	PackedStorage(Fraction [][] input) {
+		this(input.length, input[0].length);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (input[i][j] != null) {
+					set(i, j, input[i][j]);
+				} // if
+			} // for j
+		} // for i
+	} // PackedStorage
+
+	/**
+	 * Constructor. Uses the arrays directly, without copying them. Every entry must be in lowest terms
+	 * with a positive denominator.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param numerators row-major numerators, rows * cols long
+	 * @param denominators row-major denominators, rows * cols long
+	 */
+	PackedStorage(int rows, int cols, long [] numerators, long [] denominators) {
+		this.rows = rows;
+		this.cols = cols;
+		this.numerators = numerators;
+		this.denominators = denominators;
+	} // PackedStorage
+
+	/**
+	 * Copy constructor.
+	 * @param other storage to copy
+	 */
+	private PackedStorage(PackedStorage other) {
+		rows = other.rows;
+		cols = other.cols;
+		numerators = other.numerators.clone();
+		denominators = other.denominators.clone();
+		if (other.overflow != null) {
+			overflow = new ConcurrentHashMap<Integer, Fraction>(other.overflow);
+		} // if
+	} // PackedStorage
+
+	int numRows() {
+		return rows;
+	} // numRows
+
+	int numCols() {
+		return cols;
+	} // numCols
+
+	Fraction get(int row, int col) {
+		int index = row * cols + col;
+		if (denominators[index] == 0) {
+			return overflow.get(index);
+		} // if
+		return Fraction.reduced(numerators[index], denominators[index]);
+	} // get
+
+	void set(int row, int col, Fraction f) {
+		modified();
+		int index = row * cols + col;
+		if (f.isBig()) {
+			overflow().put(index, f);
+			numerators[index] = 0;
+			denominators[index] = 0;
+		} else {
+			if (denominators[index] == 0) {
+				overflow.remove(index);
+			} // if
+			numerators[index] = f.getNumerator();
+			denominators[index] = f.getDenominator();
+		} // else
+	} // set
+
+	MatrixStorage copy() {
+		return new PackedStorage(this);
+	} // copy
+
+	boolean isZero(int row, int col) {
+		int index = row * cols + col;
+		return (numerators[index] == 0 && denominators[index] != 0);
+	} // isZero
+
+	void swapRows(int row1, int row2) {
+		modified();
+		int first = row1 * cols;
+		int second = row2 * cols;
+
+		for (int j = 0; j < cols; j++) {
+			long temp = numerators[first + j];
+			numerators[first + j] = numerators[second + j];
+			numerators[second + j] = temp;
+			temp = denominators[first + j];
+			denominators[first + j] = denominators[second + j];
+			denominators[second + j] = temp;
+		} // for j
+
+		if (overflow != null && !overflow.isEmpty()) {
+			for (int j = 0; j < cols; j++) {
+				Fraction a = overflow.remove(first + j);
+				Fraction b = overflow.remove(second + j);
+				if (a != null) {
+					overflow.put(second + j, a);
+				} // if
+				if (b != null) {
+					overflow.put(first + j, b);
+				} // if
+			} // for j
+		} // if
+	} // swapRows
+
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		modified();
+		if (coefficient.isZero()) {
+			return;
+		} else if (coefficient.isBig()) {
+			super.addRowMultiple(target, source, coefficient, fromCol);
+			return;
+		} // else if
+
+		long cn = coefficient.getNumerator();
+		long cd = coefficient.getDenominator();
+		int t = target * cols;
+		int s = source * cols;
+
+		for (int j = fromCol; j < cols; j++) {
+			long sn = numerators[s + j];
+			long sd = denominators[s + j];
+			if (sn == 0 && sd != 0) {
+				continue;
+			} // if
+			if (sd == 0 || denominators[t + j] == 0 || !multiplyAdd(numerators, denominators, t + j, cn, cd, sn, sd)) {
+				set(target, j, get(target, j).add(coefficient.multiply(get(source, j))));
+			} // if
+		} // for j
+	} // addRowMultiple
+
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		modified();
+		if (coefficient.isBig()) {
+			super.scaleRow(row, coefficient, fromCol);
+			return;
+		} // if
+
+		long cn = coefficient.getNumerator();
+		long cd = coefficient.getDenominator();
+		int r = row * cols;
+
+		for (int j = fromCol; j < cols; j++) {
+			if (denominators[r + j] == 0 || !multiply(numerators, denominators, r + j, cn, cd)) {
+				set(row, j, get(row, j).multiply(coefficient));
+			} // if
+		} // for j
+	} // scaleRow
+
+	Fraction dotProduct(int row, MatrixStorage other, int col) {
+		if (!(other instanceof PackedStorage)) {
+			return super.dotProduct(row, other, col);
+		} // if
+
+		PackedStorage b = (PackedStorage)other;
+		FractionAccumulator sum = new FractionAccumulator();
+		int r = row * cols;
+
+		for (int k = 0; k < cols; k++) {
+			int index = k * b.cols + col;
+			if (numerators[r + k] == 0 && denominators[r + k] != 0 || b.numerators[index] == 0 && b.denominators[index] != 0) {
+				continue;
+			} // if
+			if (denominators[r + k] == 0 || b.denominators[index] == 0) {
+				sum.multiplyAdd(get(row, k), b.get(k, col));
+			} else {
+				sum.multiplyAdd(numerators[r + k], denominators[r + k], b.numerators[index], b.denominators[index]);
+			} // else
+		} // for k
+
+		return sum.toFraction();
+	} // dotProduct
+
+	void multiplyBlock(MatrixStorage other, MatrixStorage out, int rowStart, int rowEnd, int innerStart, int innerEnd, int colStart, int colEnd) {
+		if (!(other instanceof PackedStorage) || !(out instanceof PackedStorage)) {
+			super.multiplyBlock(other, out, rowStart, rowEnd, innerStart, innerEnd, colStart, colEnd);
+			return;
+		} // if
+
+		PackedStorage b = (PackedStorage)other;
+		PackedStorage c = (PackedStorage)out;
+		c.modified();
+
+		for (int i = rowStart; i < rowEnd; i++) {
+			int outRow = i * c.cols;
+			for (int k = innerStart; k < innerEnd; k++) {
+				long an = numerators[i * cols + k];
+				long ad = denominators[i * cols + k];
+				if (an == 0 && ad != 0) {
+					continue;
+				} // if
+
+				// walk row k of the other storage, which is contiguous in memory
+				int bRow = k * b.cols;
+				for (int j = colStart; j < colEnd; j++) {
+					long bn = b.numerators[bRow + j];
+					long bd = b.denominators[bRow + j];
+					if (bn == 0 && bd != 0) {
+						continue;
+					} // if
+					if (ad == 0 || bd == 0 || c.denominators[outRow + j] == 0
+							|| !multiplyAdd(c.numerators, c.denominators, outRow + j, an, ad, bn, bd)) {
+						c.set(i, j, c.get(i, j).add(get(i, k).multiply(b.get(k, j))));
+					} // if
+				} // for j
+			} // for k
+		} // for i
+	} // multiplyBlock
+
+	/**
+	 * Uses Strassen-Winograd multiplication for products where every dimension is at least the crossover,
+	 * and the tiled classical product otherwise.
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		if (other instanceof PackedStorage && StrassenMultiply.useStrassen(rows, cols, other.numCols())) {
+			return StrassenMultiply.multiply(this, (PackedStorage)other);
+		} // if
+		return super.multiply(other);
+	} // multiply
+
+	/**
+	 * Copies a block of entries into new storage.
+	 * @param row first row of the block
+	 * @param col first column of the block
+	 * @param height number of rows in the block
+	 * @param width number of columns in the block
+	 * @return storage holding the block
+	 */
+	PackedStorage block(int row, int col, int height, int width) {
+		PackedStorage output = new PackedStorage(height, width);
+
+		for (int i = 0; i < height; i++) {
+			System.arraycopy(numerators, (row + i) * cols + col, output.numerators, i * width, width);
+			System.arraycopy(denominators, (row + i) * cols + col, output.denominators, i * width, width);
+		} // for i
+
+		if (overflow != null && !overflow.isEmpty()) {
+			for (int i = 0; i < height; i++) {
+				for (int j = 0; j < width; j++) {
+					if (output.denominators[i * width + j] == 0) {
+						output.overflow().put(i * width + j, overflow.get((row + i) * cols + col + j));
+					} // if
+				} // for j
+			} // for i
+		} // if
+
+		return output;
+	} // block
+
+	/**
+	 * Overwrites a block of entries with the entries of another storage.
+	 * @param row first row of the block
+	 * @param col first column of the block
+	 * @param other storage holding the new entries; its size is the size of the block
+	 */
+	void setBlock(int row, int col, PackedStorage other) {
+		modified();
+		for (int i = 0; i < other.rows; i++) {
+			for (int j = 0; j < other.cols; j++) {
+				if (denominators[(row + i) * cols + col + j] == 0 || other.denominators[i * other.cols + j] == 0) {
+					set(row + i, col + j, other.get(i, j));
+				} // if
+			} // for j
+			System.arraycopy(other.numerators, i * other.cols, numerators, (row + i) * cols + col, other.cols);
+			System.arraycopy(other.denominators, i * other.cols, denominators, (row + i) * cols + col, other.cols);
+		} // for i
+	} // setBlock
+
+	/**
+	 * Adds or subtracts another storage of the same size, entry by entry: this = this + other or this - other.
+	 * @param other storage to add
+	 * @param subtract true to subtract other instead of adding it
+	 */
+	void add(PackedStorage other, boolean subtract) {
+		modified();
+		long sign = subtract? -1 : 1;
+
+		for (int index = 0; index < numerators.length; index++) {
+			long bn = other.numerators[index];
+			long bd = other.denominators[index];
+			if (bn == 0 && bd != 0) {
+				continue;
+			} // if
+			if (bd == 0 || denominators[index] == 0 || !multiplyAdd(numerators, denominators, index, bn, bd, sign, 1)) {
+				Fraction b = other.get(index / cols, index % cols);
+				set(index / cols, index % cols, get(index / cols, index % cols).add(subtract? b.negate() : b));
+			} // if
+		} // for index
+	} // add
+
+	/**
+	 * Gets the map of entries that do not fit in longs, creating it if needed.
+	 * @return map from array index to entry
+	 */
+	private ConcurrentHashMap<Integer, Fraction> overflow() {
+		if (overflow == null) {
+			synchronized (this) {
+				if (overflow == null) {
+					overflow = new ConcurrentHashMap<Integer, Fraction>();
+				} // if
+			} // synchronized
+		} // if
+		return overflow;
+	} // overflow
+
+	/**
+	 * Adds a product to an entry of a packed array: n[i]/d[i] += (an/ad)(bn/bd).
+	 * All values must be in lowest terms with positive denominators.
+	 * Leaves the entry unchanged if any step overflows a long.
+	 * @param n numerator array
+	 * @param d denominator array
+	 * @param index entry to update
+	 * @param an numerator of the first factor
+	 * @param ad denominator of the first factor
+	 * @param bn numerator of the second factor
+	 * @param bd denominator of the second factor
+	 * @return true if the entry was updated, false if it overflowed
+	 */
+	static boolean multiplyAdd(long [] n, long [] d, int index, long an, long ad, long bn, long bd) {
+		try {
+			// cross-cancel the product
+			long g1 = Fraction.gcd(an, bd);
+			long g2 = Fraction.gcd(bn, ad);
+			long pn = Math.multiplyExact(an / g1, bn / g2);
+			long pd = Math.multiplyExact(ad / g2, bd / g1);
+			if (pn == Long.MIN_VALUE) {
+				return false;
+			} // if
+
+			// add using the lcm of the denominators
+			long tn = n[index];
+			long td = d[index];
+			long rn;
+			long rd;
+			if (td == pd) {
+				rn = Math.addExact(tn, pn);
+				rd = td;
+			} else {
+				long g = Fraction.gcd(td, pd);
+				long scale = pd / g;
+				rn = Math.addExact(Math.multiplyExact(tn, scale), Math.multiplyExact(pn, td / g));
+				rd = Math.multiplyExact(td, scale);
+			} // else
+
+			if (rn == Long.MIN_VALUE) {
+				return false;
+			} else if (rn == 0) {
+				rd = 1;
+			} else {
+				long h = Fraction.gcd(rn, rd);
+				rn /= h;
+				rd /= h;
+			} // else
+
+			n[index] = rn;
+			d[index] = rd;
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		} // catch
+	} // multiplyAdd
+
+	/**
+	 * Multiplies an entry of a packed array by cn/cd. All values must be in lowest terms.
+	 * Leaves the entry unchanged if the product overflows a long.
+	 * @param n numerator array
+	 * @param d denominator array
+	 * @param index entry to update
+	 * @param cn numerator of the multiplier
+	 * @param cd denominator of the multiplier
+	 * @return true if the entry was updated, false if it overflowed
+	 */
+	static boolean multiply(long [] n, long [] d, int index, long cn, long cd) {
+		if (n[index] == 0) {
+			return true;
+		} else if (cn == 0) {
+			d[index] = 1;
+			n[index] = 0;
+			return true;
+		} // else if
+
+		try {
+			long g1 = Fraction.gcd(n[index], cd);
+			long g2 = Fraction.gcd(cn, d[index]);
+			long rn = Math.multiplyExact(n[index] / g1, cn / g2);
+			long rd = Math.multiplyExact(d[index] / g2, cd / g1);
+			if (rn == Long.MIN_VALUE) {
+				return false;
+			} // if
+			n[index] = rn;
+			d[index] = rd;
+			return true;
+		} catch (ArithmeticException e) {
+			return false;
+		} // catch
+	} // multiply
+
+} // PackedStorage
@@ -0,0 +1,59 @@
+/**
+ * A StepListener that writes every step to a PrintStream, followed by the matrix after the step.
+ * Each step is written with a single print call, so traces of different computations sharing a stream
+ * do not interleave within a step.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.io.PrintStream;
+
+public class PrintStepListener implements StepListener {
+	private final PrintStream out;
+	private final boolean showMatrix;
+
+	/**
+	 * Constructor. Writes to System.out and shows the matrix after every step.
+	 */
+	public PrintStepListener() {
+		this(System.out, true);
+	} // PrintStepListener
+
+	/**
+	 * Constructor.
+	 * @param out stream to write to
+	 * @param showMatrix true to write the matrix after every row operation, false to write only the operations
+	 */
+	public PrintStepListener(PrintStream out, boolean showMatrix) {
+		this.out = out;
+		this.showMatrix = showMatrix;
+	} // PrintStepListener
+
+	public void swap(Matrix matrix, int row1, int row2) {
+		print("Swap rows " + row1 + " and " + row2 + ":", matrix);
+	} // swap
+
+	public void scale(Matrix matrix, int row, Fraction coefficient) {
+		print("R" + row + " = (" + coefficient + ")R" + row + ":", matrix);
+	} // scale
+
+	public void cancel(Matrix matrix, int row, int pivotRow, int col, Fraction coefficient) {
+		print("R" + row + " = R" + row + " - (" + coefficient + ")R" + pivotRow + " to cancel column " + col + ":", matrix);
+	} // cancel
+
+	public void note(String text, Matrix matrix) {
+		out.println((matrix == null)? text : text + "\n" + matrix + "\n");
+	} // note
+
+	/**
+	 * Writes a row operation, and the matrix after it if showMatrix is set.
+	 * @param text description of the operation
+	 * @param matrix matrix after the operation
+	 */
+	private void print(String text, Matrix matrix) {
+		out.println(showMatrix? text + "\n" + matrix + "\n" : text);
+	} // print
+
+} // PrintStepListener
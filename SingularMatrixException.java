@@ -0,0 +1,20 @@
+/**
+ * Thrown when an operation needs an invertible matrix and the matrix is singular.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+public class SingularMatrixException extends MatrixException {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor.
+	 * @param message description of the problem
+	 */
+	public SingularMatrixException(String message) {
+		super(message);
+	} // SingularMatrixException
+
+} // SingularMatrixException
@@ -0,0 +1,384 @@
+/**
+ * Matrix storage that keeps only the non-zero entries, in compressed row form: for each row,
+ * the column indices of its non-zero entries in increasing order and the entries themselves.
+ * Each row has its own arrays so fill-in during elimination only touches the rows involved.
+ * Memory and the row operations scale with the number of non-zero entries, not rows * cols.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.util.Arrays;
+
+class SparseStorage extends MatrixStorage {
+	private static final Fraction ZERO = Fraction.valueOf(0);
+	private final int rows;
+	private final int cols;
+	private final int [][] columns;		// column indices of the non-zero entries of each row, increasing
+	private final Fraction [][] values;	// non-zero entries of each row, in the same order
+	private final int [] counts;		// number of non-zero entries in each row
+
+	/**
+	 * Constructor. All entries start as 0.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 */
+	SparseStorage(int rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		columns = new int[rows][];
+		values = new Fraction[rows][];
+		counts = new int[rows];
+
+		for (int i = 0; i < rows; i++) {
+			columns[i] = new int[0];
+			values[i] = new Fraction[0];
+		} // for i
+	} // SparseStorage
+
+	/**
+	 * Constructor. Copies a 2D fraction array; null and 0 entries are not stored.
+	 * @param input 2D fraction array
+	 */
+	SparseStorage(Fraction [][] input) {
+		this(input.length, input[0].length);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				if (input[i][j] != null && !input[i][j].isZero()) {
+					append(i, j, input[i][j]);
+				} // if
+			} // for j
+		} // for i
+	} // SparseStorage
+
+	/**
+	 * Copy constructor. Entries are shared, since fractions are never changed once created.
+	 * @param other storage to copy
+	 */
+	private SparseStorage(SparseStorage other) {
+		rows = other.rows;
+		cols = other.cols;
+		columns = new int[rows][];
+		values = new Fraction[rows][];
+		counts = other.counts.clone();
+
+		for (int i = 0; i < rows; i++) {
+			columns[i] = Arrays.copyOf(other.columns[i], counts[i]);
+			values[i] = Arrays.copyOf(other.values[i], counts[i]);
+		} // for i
+	} // SparseStorage
+
+	int numRows() {
+		return rows;
+	} // numRows
+
+	int numCols() {
+		return cols;
+	} // numCols
+
+	/**
+	 * Gets the number of non-zero entries.
+	 * @return number of stored entries
+	 */
+	int nonZeros() {
+		int output = 0;
+
+		for (int i = 0; i < rows; i++) {
+			output += counts[i];
+		} // for i
+
+		return output;
+	} // nonZeros
+
+	Fraction get(int row, int col) {
+		int index = Arrays.binarySearch(columns[row], 0, counts[row], col);
+		return (index >= 0)? values[row][index] : ZERO;
+	} // get
+
+	void set(int row, int col, Fraction f) {
+		modified();
+		int index = Arrays.binarySearch(columns[row], 0, counts[row], col);
+
+		if (index >= 0) {
+			if (f.isZero()) {
+				// remove the entry
+				System.arraycopy(columns[row], index + 1, columns[row], index, counts[row] - index - 1);
+				System.arraycopy(values[row], index + 1, values[row], index, counts[row] - index - 1);
+				counts[row]--;
+				values[row][counts[row]] = null;
+			} else {
+				values[row][index] = f;
+			} // else
+		} else if (!f.isZero()) {
+			index = -index - 1;
+			ensureCapacity(row, counts[row] + 1);
+			System.arraycopy(columns[row], index, columns[row], index + 1, counts[row] - index);
+			System.arraycopy(values[row], index, values[row], index + 1, counts[row] - index);
+			columns[row][index] = col;
+			values[row][index] = f;
+			counts[row]++;
+		} // else if
+	} // set
+
+	MatrixStorage copy() {
+		return new SparseStorage(this);
+	} // copy
+
+	boolean isZero(int row, int col) {
+		return Arrays.binarySearch(columns[row], 0, counts[row], col) < 0;
+	} // isZero
+
+	int leadingColumn(int row) {
+		return (counts[row] == 0)? cols : columns[row][0];
+	} // leadingColumn
+
+	int nextNonZero(int row, int col) {
+		int index = Arrays.binarySearch(columns[row], 0, counts[row], col);
+		if (index < 0) {
+			index = -index - 1;
+		} // if
+		return (index < counts[row])? columns[row][index] : cols;
+	} // nextNonZero
+
+	/**
+	 * Chooses the pivot with the Markowitz rule: of the rows with a non-zero entry in the column,
+	 * the one with the fewest non-zero entries from that column on. Adding a short row to the rows
+	 * below creates the least fill-in.
+	 */
+	int pivotRow(int col, int fromRow) {
+		int output = rows;
+		int fewest = Integer.MAX_VALUE;
+
+		for (int i = fromRow; i < rows; i++) {
+			int index = Arrays.binarySearch(columns[i], 0, counts[i], col);
+			if (index >= 0 && counts[i] - index < fewest) {
+				output = i;
+				fewest = counts[i] - index;
+			} // if
+		} // for i
+
+		return output;
+	} // pivotRow
+
+	void swapRows(int row1, int row2) {
+		modified();
+		int [] tempColumns = columns[row1];
+		columns[row1] = columns[row2];
+		columns[row2] = tempColumns;
+		Fraction [] tempValues = values[row1];
+		values[row1] = values[row2];
+		values[row2] = tempValues;
+		int tempCount = counts[row1];
+		counts[row1] = counts[row2];
+		counts[row2] = tempCount;
+	} // swapRows
+
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		modified();
+		if (coefficient.isZero()) {
+			return;
+		} // if
+
+		int [] tc = columns[target];
+		Fraction [] tv = values[target];
+		int [] sc = columns[source];
+		Fraction [] sv = values[source];
+		int tn = counts[target];
+		int sn = counts[source];
+		int [] newColumns = new int[tn + sn];
+		Fraction [] newValues = new Fraction[tn + sn];
+		int t = 0;
+		int s = 0;
+		int n = 0;
+
+		// skip the source entries left of fromCol; keep the target entries there as they are
+		while (s < sn && sc[s] < fromCol) {
+			s++;
+		} // while
+		while (t < tn && tc[t] < fromCol) {
+			newColumns[n] = tc[t];
+			newValues[n++] = tv[t++];
+		} // while
+
+		// merge the two rows, dropping entries that cancel
+		while (t < tn || s < sn) {
+			if (s == sn || (t < tn && tc[t] < sc[s])) {
+				newColumns[n] = tc[t];
+				newValues[n++] = tv[t++];
+			} else if (t == tn || sc[s] < tc[t]) {
+				newColumns[n] = sc[s];
+				newValues[n++] = coefficient.multiply(sv[s++]);
+			} else {
+				Fraction sum = tv[t].add(coefficient.multiply(sv[s]));
+				if (!sum.isZero()) {
+					newColumns[n] = tc[t];
+					newValues[n++] = sum;
+				} // if
+				t++;
+				s++;
+			} // else
+		} // while
+
+		columns[target] = newColumns;
+		values[target] = newValues;
+		counts[target] = n;
+	} // addRowMultiple
+
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		modified();
+		int start = Arrays.binarySearch(columns[row], 0, counts[row], fromCol);
+		if (start < 0) {
+			start = -start - 1;
+		} // if
+
+		if (coefficient.isZero()) {
+			Arrays.fill(values[row], start, counts[row], null);
+			counts[row] = start;
+			return;
+		} // if
+
+		for (int k = start; k < counts[row]; k++) {
+			values[row][k] = values[row][k].multiply(coefficient);
+		} // for k
+	} // scaleRow
+
+	Fraction dotProduct(int row, MatrixStorage other, int col) {
+		FractionAccumulator sum = new FractionAccumulator();
+
+		// only the non-zero entries of the row can contribute
+		for (int k = 0; k < counts[row]; k++) {
+			int j = columns[row][k];
+			if (!other.isZero(j, col)) {
+				sum.multiplyAdd(values[row][k], other.get(j, col));
+			} // if
+		} // for k
+
+		return sum.toFraction();
+	} // dotProduct
+
+	/**
+	 * Multiplies row by row (Gustavson): row i of the product is the sum of the rows k of the other
+	 * storage, each scaled by entry (i, k) of this one. Only non-zero products are ever formed.
+	 * The product is kept sparse unless it is too dense, in which case it is returned packed.
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		if (!(other instanceof SparseStorage)) {
+			return super.multiply(other);
+		} // if
+
+		SparseStorage b = (SparseStorage)other;
+		SparseStorage output = new SparseStorage(rows, b.cols);
+		FractionAccumulator [] sums = new FractionAccumulator[b.cols];	// entries of the output row being built, reused for every row
+		boolean [] used = new boolean[b.cols];
+		int [] touched = new int[b.cols];		// columns of sums that are in use
+
+		for (int i = 0; i < rows; i++) {
+			int n = 0;
+			for (int k = 0; k < counts[i]; k++) {
+				Fraction a = values[i][k];
+				int bRow = columns[i][k];
+				for (int l = 0; l < b.counts[bRow]; l++) {
+					int j = b.columns[bRow][l];
+					if (!used[j]) {
+						if (sums[j] == null) {
+							sums[j] = new FractionAccumulator();
+						} // if
+						used[j] = true;
+						touched[n++] = j;
+					} // if
+					sums[j].multiplyAdd(a, b.values[bRow][l]);
+				} // for l
+			} // for k
+
+			Arrays.sort(touched, 0, n);
+			output.ensureCapacity(i, n);
+			for (int l = 0; l < n; l++) {
+				int j = touched[l];
+				if (!sums[j].isZero()) {
+					output.append(i, j, sums[j].toFraction());
+				} // if
+				sums[j].reset();
+				used[j] = false;
+			} // for l
+		} // for i
+
+		if (output.nonZeros() > SPARSE_DENSITY * rows * b.cols) {
+			return output.toPacked();
+		} // if
+		return output;
+	} // multiply
+
+	/**
+	 * Transposes by counting the entries in each column first, so every row of the
+	 * output is allocated once at its final size. This is the compressed column form of the storage.
+	 */
+	MatrixStorage transpose() {
+		SparseStorage output = new SparseStorage(cols, rows);
+		int [] columnCounts = new int[cols];
+
+		for (int i = 0; i < rows; i++) {
+			for (int k = 0; k < counts[i]; k++) {
+				columnCounts[columns[i][k]]++;
+			} // for k
+		} // for i
+
+		for (int j = 0; j < cols; j++) {
+			output.ensureCapacity(j, columnCounts[j]);
+		} // for j
+
+		// rows are visited in order, so each output row is filled in increasing column order
+		for (int i = 0; i < rows; i++) {
+			for (int k = 0; k < counts[i]; k++) {
+				output.append(columns[i][k], i, values[i][k]);
+			} // for k
+		} // for i
+
+		return output;
+	} // transpose
+
+	/**
+	 * Copies the entries into packed storage.
+	 * @return packed storage with the same entries
+	 */
+	PackedStorage toPacked() {
+		PackedStorage output = new PackedStorage(rows, cols);
+
+		for (int i = 0; i < rows; i++) {
+			for (int k = 0; k < counts[i]; k++) {
+				output.set(i, columns[i][k], values[i][k]);
+			} // for k
+		} // for i
+
+		return output;
+	} // toPacked
+
+	/**
+	 * Adds a non-zero entry to the end of a row. The column must be right of every entry in the row.
+	 * @param row row location
+	 * @param col column location
+	 * @param f non-zero value of the entry
+	 */
+	private void append(int row, int col, Fraction f) {
+		modified();
+		ensureCapacity(row, counts[row] + 1);
+		columns[row][counts[row]] = col;
+		values[row][counts[row]] = f;
+		counts[row]++;
+	} // append
+
+	/**
+	 * Grows the arrays of a row so they can hold at least the given number of entries.
+	 * @param row row to grow
+	 * @param capacity number of entries needed
+	 */
+	private void ensureCapacity(int row, int capacity) {
+		if (columns[row].length < capacity) {
+			int length = Math.max(capacity, 2 * columns[row].length);
+			columns[row] = Arrays.copyOf(columns[row], length);
+			values[row] = Arrays.copyOf(values[row], length);
+		} // if
+	} // ensureCapacity
+
+} // SparseStorage
@@ -0,0 +1,52 @@
+/**
+ * Receives the steps of a row reduction as they happen, for showing work or logging.
+ * Pass one to the methods of Matrix and DoubleMatrix that take a StepListener; the methods without one use the
+ * listener set on that matrix, which is none by default. DoubleMatrix reports its steps as notes. Tracing costs nothing unless it is asked for, and one computation's
+ * trace never affects another's.
+ * Every method does nothing by default, so a listener only overrides the steps it cares about.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+public interface StepListener {
+
+	/**
+	 * Called after two rows are swapped.
+	 * @param matrix the matrix being reduced
+	 * @param row1 first row
+	 * @param row2 second row
+	 */
+	default void swap(Matrix matrix, int row1, int row2) {
+	} // swap
+
+	/**
+	 * Called after a row is multiplied by a constant: Ri = coefficient * Ri.
+	 * @param matrix the matrix being reduced
+	 * @param row the row that was scaled
+	 * @param coefficient value the row was multiplied by
+	 */
+	default void scale(Matrix matrix, int row, Fraction coefficient) {
+	} // scale
+
+	/**
+	 * Called after an entry is cancelled by subtracting a multiple of a pivot row: Ri = Ri - coefficient * Rpivot.
+	 * @param matrix the matrix being reduced
+	 * @param row the row that was changed
+	 * @param pivotRow the row that was subtracted
+	 * @param col the column of the cancelled entry
+	 * @param coefficient multiple of the pivot row that was subtracted
+	 */
+	default void cancel(Matrix matrix, int row, int pivotRow, int col, Fraction coefficient) {
+	} // cancel
+
+	/**
+	 * Called at the start or end of a stage of a calculation, and for results that are not row operations.
+	 * @param text description of the stage
+	 * @param matrix the matrix at this point, or null if there is nothing to show
+	 */
+	default void note(String text, Matrix matrix) {
+	} // note
+
+} // StepListener
@@ -0,0 +1,182 @@
+/**
+ * Allocates matrix storage outside the Java heap, in large direct buffers, so multi-gigabyte matrices do not
+ * add to garbage collection work. Matrices made by an arena, and every copy, product and transpose of them,
+ * take their memory from the same arena, and all of it is released together by close. Using any of those
+ * matrices after close throws IllegalStateException.
+ * Memory is handed out from chunks by moving a pointer forward. Temporary storage that is released before
+ * close, such as the copies det and rank work on, gives its memory back: a storage with a chunk of its own
+ * drops it, and smaller ones are handed out again to the next storage of the same size.
+ * The buffers are in native byte order.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+public class StorageArena implements AutoCloseable {
+	private static final int CHUNK = 64 << 20;	// default bytes per chunk
+
+	private final int chunkSize;
+	private final ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+	private final HashSet<OffHeapStorage> storages = new HashSet<OffHeapStorage>();	// released by close
+	private final HashMap<Integer, ArrayDeque<ByteBuffer>> free = new HashMap<Integer, ArrayDeque<ByteBuffer>>();	// released memory by size
+	private ByteBuffer current = null;		// chunk that memory is being handed out from
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructor. Allocates memory in chunks of 64 MB.
+	 */
+	StorageArena() {
+		this(CHUNK);
+	} // StorageArena
+
+	/**
+	 * Constructor.
+	 * @param chunkSize bytes per chunk; larger allocations get a chunk of their own
+	 * @throws IllegalArgumentException if chunkSize is not positive
+	 */
+	StorageArena(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("invalid chunk size: " + chunkSize);
+		} // if
+		this.chunkSize = chunkSize;
+	} // StorageArena
+
+	/**
+	 * Creates a matrix of 0s outside the heap.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @return the matrix
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	public Matrix allocate(int rows, int cols) {
+		return new Matrix(new OffHeapStorage(this, rows, cols));
+	} // allocate
+
+	/**
+	 * Copies a matrix outside the heap. An augmented matrix stays augmented at the same column.
+	 * @param matrix matrix to copy
+	 * @return the copy
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	public Matrix copyOf(Matrix matrix) {
+		MatrixStorage source = matrix.m;
+		OffHeapStorage storage = new OffHeapStorage(this, source.numRows(), source.numCols());
+
+		for (int i = 0; i < source.numRows(); i++) {
+			for (int j = source.nextNonZero(i, 0); j < source.numCols(); j = source.nextNonZero(i, j + 1)) {
+				storage.set(i, j, source.get(i, j));
+			} // for j
+		} // for i
+
+		if (matrix instanceof AugmentedMatrix) {
+			return new AugmentedMatrix(storage, ((AugmentedMatrix)matrix).getAugIndex());
+		} // if
+		return new Matrix(storage);
+	} // copyOf
+
+	/**
+	 * Determines if the arena has been closed.
+	 * @return true if closed, false otherwise
+	 */
+	public boolean isClosed() {
+		return closed;
+	} // isClosed
+
+	/**
+	 * Releases every buffer of the arena. Direct buffers cannot be freed explicitly, so the memory is returned
+	 * once the collector finds the buffers unreachable; the arena and its storage drop their references here.
+	 */
+	public synchronized void close() {
+		closed = true;
+		for (OffHeapStorage storage : storages) {
+			storage.release();
+		} // for storage
+		storages.clear();
+		chunks.clear();
+		free.clear();
+		current = null;
+	} // close
+
+	/**
+	 * Hands out zeroed memory: memory released by other storage of the same size if there is some, otherwise
+	 * from the current chunk, starting a new chunk if it does not have room.
+	 * @param bytes number of bytes, a multiple of 8
+	 * @return buffer of exactly that many bytes in native byte order
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	synchronized ByteBuffer allocate(int bytes) {
+		checkOpen();
+		ArrayDeque<ByteBuffer> released = free.get(bytes);
+		if (released != null && !released.isEmpty()) {
+			ByteBuffer output = released.pop();
+			for (int i = 0; i < bytes; i += 8) {
+				output.putLong(i, 0);
+			} // for i
+			return output;
+		} // if
+
+		if (current == null || current.remaining() < bytes) {
+			ByteBuffer chunk = ByteBuffer.allocateDirect(Math.max(bytes, chunkSize));
+			chunks.add(chunk);
+			if (bytes >= chunkSize) {
+				return chunk.order(ByteOrder.nativeOrder());
+			} // if
+			current = chunk;
+		} // if
+
+		ByteBuffer output = current.slice(current.position(), bytes).order(ByteOrder.nativeOrder());
+		current.position(current.position() + bytes);
+		return output;
+	} // allocate
+
+	/**
+	 * Records storage made from this arena, so close can release it.
+	 * @param storage the storage
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	synchronized void register(OffHeapStorage storage) {
+		checkOpen();
+		storages.add(storage);
+	} // register
+
+	/**
+	 * Takes back the memory of storage that will not be used again. Memory in a chunk of its own is dropped,
+	 * so the collector can free it; smaller memory is kept to hand out again. Does nothing once the arena is
+	 * closed, since close releases everything.
+	 * @param storage the storage
+	 * @param memory every buffer allocate gave the storage
+	 */
+	synchronized void reclaim(OffHeapStorage storage, ByteBuffer [] memory) {
+		if (closed) {
+			return;
+		} // if
+
+		storages.remove(storage);
+		for (ByteBuffer buffer : memory) {
+			if (buffer.capacity() >= chunkSize) {
+				chunks.removeIf(chunk -> chunk == buffer);
+			} else {
+				free.computeIfAbsent(buffer.capacity(), size -> new ArrayDeque<ByteBuffer>()).push(buffer);
+			} // else
+		} // for buffer
+	} // reclaim
+
+	/**
+	 * Checks that the arena is still open.
+	 * @throws IllegalStateException if the arena is closed
+	 */
+	void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("storage arena is closed");
+		} // if
+	} // checkOpen
+
+} // StorageArena
@@ -0,0 +1,303 @@
+/**
+ * Strassen-Winograd multiplication: splits each factor into four blocks and forms the product from
+ * 7 block products and 15 block additions instead of 8 products, recursing until a block is smaller
+ * than the crossover, where the classical tiled product is faster. Odd dimensions are peeled: the
+ * largest even-sized part is multiplied recursively and the last row, column or inner index is
+ * added with the classical kernel, so no padding is allocated.
+ * The crossovers for exact and double products are tuned separately and can be set with the system
+ * properties matrix.strassen.crossover and matrix.strassen.doubleCrossover, or with setCrossover.
+ * Exact products gain less than the 7/8 per level suggests, since the block sums have larger
+ * numerators and denominators than the entries they came from.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+class StrassenMultiply {
+	private static volatile int crossover = Integer.getInteger("matrix.strassen.crossover", 128);
+	private static volatile int doubleCrossover = Integer.getInteger("matrix.strassen.doubleCrossover", 128);
+
+	/**
+	 * Sets the smallest dimension at which Strassen-Winograd is used instead of the classical product.
+	 * @param exact crossover for Fraction matrices
+	 * @param primitive crossover for DoubleMatrix
+	 * @throws IllegalArgumentException if either crossover is less than 2
+	 */
+	static void setCrossover(int exact, int primitive) {
+		if (exact < 2 || primitive < 2) {
+			throw new IllegalArgumentException("crossovers must be at least 2: " + exact + ", " + primitive);
+		} // if
+		crossover = exact;
+		doubleCrossover = primitive;
+	} // setCrossover
+
+	/**
+	 * Determines if an exact product is large enough for Strassen-Winograd.
+	 * @param rows rows of the left factor
+	 * @param inner columns of the left factor and rows of the right
+	 * @param cols columns of the right factor
+	 * @return true if every dimension is at least the crossover
+	 */
+	static boolean useStrassen(int rows, int inner, int cols) {
+		return Math.min(rows, Math.min(inner, cols)) >= crossover;
+	} // useStrassen
+
+	/**
+	 * Multiplies two packed storages.
+	 * @param a left storage
+	 * @param b right storage, with as many rows as a has columns
+	 * @return storage holding the product
+	 */
+	static PackedStorage multiply(PackedStorage a, PackedStorage b) {
+		int rows = a.numRows();
+		int inner = a.numCols();
+		int cols = b.numCols();
+		PackedStorage output = new PackedStorage(rows, cols);
+
+		if (!useStrassen(rows, inner, cols)) {
+			MultiplyTask.multiply(a, b, output);
+			return output;
+		} // if
+
+		int r = rows / 2;
+		int n = inner / 2;
+		int c = cols / 2;
+		PackedStorage a11 = a.block(0, 0, r, n);
+		PackedStorage a12 = a.block(0, n, r, n);
+		PackedStorage a21 = a.block(r, 0, r, n);
+		PackedStorage a22 = a.block(r, n, r, n);
+		PackedStorage b11 = b.block(0, 0, n, c);
+		PackedStorage b12 = b.block(0, c, n, c);
+		PackedStorage b21 = b.block(n, 0, n, c);
+		PackedStorage b22 = b.block(n, c, n, c);
+
+		PackedStorage s1 = sum(a21, a22, false);
+		PackedStorage s2 = sum(s1, a11, true);
+		PackedStorage s3 = sum(a11, a21, true);
+		PackedStorage s4 = sum(a12, s2, true);
+		PackedStorage t1 = sum(b12, b11, true);
+		PackedStorage t2 = sum(b22, t1, true);
+		PackedStorage t3 = sum(b22, b12, true);
+		PackedStorage t4 = sum(t2, b21, true);
+
+		PackedStorage p1 = multiply(a11, b11);
+		PackedStorage p2 = multiply(a12, b21);
+		PackedStorage p3 = multiply(s4, b22);
+		PackedStorage p4 = multiply(a22, t4);
+		PackedStorage p5 = multiply(s1, t1);
+		PackedStorage p6 = multiply(s2, t2);
+		PackedStorage p7 = multiply(s3, t3);
+
+		// U2 = P1 + P6 and U3 = U2 + P7 are shared: C11 = P1 + P2, C12 = U2 + P5 + P3, C21 = U3 - P4, C22 = U3 + P5
+		p2.add(p1, false);
+		p6.add(p1, false);
+		p7.add(p6, false);
+		p6.add(p5, false);
+		p6.add(p3, false);
+		p5.add(p7, false);
+		p7.add(p4, true);
+		output.setBlock(0, 0, p2);
+		output.setBlock(0, c, p6);
+		output.setBlock(r, 0, p7);
+		output.setBlock(r, c, p5);
+
+		// peel the last inner index, column and row if they were left out of the blocks
+		if (inner > 2 * n) {
+			a.multiplyBlock(b, output, 0, 2 * r, 2 * n, inner, 0, 2 * c);
+		} // if
+		if (cols > 2 * c) {
+			a.multiplyBlock(b, output, 0, 2 * r, 0, inner, 2 * c, cols);
+		} // if
+		if (rows > 2 * r) {
+			a.multiplyBlock(b, output, 2 * r, rows, 0, inner, 0, cols);
+		} // if
+
+		return output;
+	} // multiply
+
+	/**
+	 * Multiplies two row-major double arrays.
+	 * @param a left factor, rows x inner
+	 * @param b right factor, inner x cols
+	 * @param rows rows of a
+	 * @param inner columns of a and rows of b
+	 * @param cols columns of b
+	 * @return the product, rows x cols
+	 */
+	static double [] multiply(double [] a, double [] b, int rows, int inner, int cols) {
+		double [] output = new double[rows * cols];
+
+		if (Math.min(rows, Math.min(inner, cols)) < doubleCrossover) {
+			multiplyBlock(a, b, output, inner, cols, 0, rows, 0, inner, 0, cols);
+			return output;
+		} // if
+
+		int r = rows / 2;
+		int n = inner / 2;
+		int c = cols / 2;
+		double [] a11 = block(a, inner, 0, 0, r, n);
+		double [] a12 = block(a, inner, 0, n, r, n);
+		double [] a21 = block(a, inner, r, 0, r, n);
+		double [] a22 = block(a, inner, r, n, r, n);
+		double [] b11 = block(b, cols, 0, 0, n, c);
+		double [] b12 = block(b, cols, 0, c, n, c);
+		double [] b21 = block(b, cols, n, 0, n, c);
+		double [] b22 = block(b, cols, n, c, n, c);
+
+		double [] s1 = sum(a21, a22, 1);
+		double [] s2 = sum(s1, a11, -1);
+		double [] s3 = sum(a11, a21, -1);
+		double [] s4 = sum(a12, s2, -1);
+		double [] t1 = sum(b12, b11, -1);
+		double [] t2 = sum(b22, t1, -1);
+		double [] t3 = sum(b22, b12, -1);
+		double [] t4 = sum(t2, b21, -1);
+
+		double [] p1 = multiply(a11, b11, r, n, c);
+		double [] p2 = multiply(a12, b21, r, n, c);
+		double [] p3 = multiply(s4, b22, r, n, c);
+		double [] p4 = multiply(a22, t4, r, n, c);
+		double [] p5 = multiply(s1, t1, r, n, c);
+		double [] p6 = multiply(s2, t2, r, n, c);
+		double [] p7 = multiply(s3, t3, r, n, c);
+
+		// the same combination as the exact product
+		add(p2, p1, 1);
+		add(p6, p1, 1);
+		add(p7, p6, 1);
+		add(p6, p5, 1);
+		add(p6, p3, 1);
+		add(p5, p7, 1);
+		add(p7, p4, -1);
+		setBlock(output, cols, 0, 0, p2, r, c);
+		setBlock(output, cols, 0, c, p6, r, c);
+		setBlock(output, cols, r, 0, p7, r, c);
+		setBlock(output, cols, r, c, p5, r, c);
+
+		if (inner > 2 * n) {
+			multiplyBlock(a, b, output, inner, cols, 0, 2 * r, 2 * n, inner, 0, 2 * c);
+		} // if
+		if (cols > 2 * c) {
+			multiplyBlock(a, b, output, inner, cols, 0, 2 * r, 0, inner, 2 * c, cols);
+		} // if
+		if (rows > 2 * r) {
+			multiplyBlock(a, b, output, inner, cols, 2 * r, rows, 0, inner, 0, cols);
+		} // if
+
+		return output;
+	} // multiply
+
+	/**
+	 * Classical product of a block of two row-major double arrays, added to an output array:
+	 * out[i][j] += a[i][k] * b[k][j] for rowStart <= i < rowEnd, innerStart <= k < innerEnd
+	 * and colStart <= j < colEnd. Goes tile by tile, in i-k-j order inside each tile so every inner loop walks a row.
+	 * @param a left factor
+	 * @param b right factor
+	 * @param out output, with as many columns as b
+	 * @param inner columns of a
+	 * @param cols columns of b and the output
+	 * @param rowStart first row of a and the output
+	 * @param rowEnd one past the last row
+	 * @param innerStart first column of a and row of b
+	 * @param innerEnd one past the last inner index
+	 * @param colStart first column of b and the output
+	 * @param colEnd one past the last column
+	 */
+	static void multiplyBlock(double [] a, double [] b, double [] out, int inner, int cols, int rowStart, int rowEnd, int innerStart, int innerEnd, int colStart, int colEnd) {
+		int tile = MultiplyTask.TILE;
+
+		for (int kk = innerStart; kk < innerEnd; kk += tile) {
+			for (int jj = colStart; jj < colEnd; jj += tile) {
+				int kEnd = Math.min(kk + tile, innerEnd);
+				int jEnd = Math.min(jj + tile, colEnd);
+				for (int i = rowStart; i < rowEnd; i++) {
+					for (int k = kk; k < kEnd; k++) {
+						double x = a[i * inner + k];
+						if (x == 0) {
+							continue;
+						} // if
+						for (int j = jj; j < jEnd; j++) {
+							out[i * cols + j] += x * b[k * cols + j];
+						} // for j
+					} // for k
+				} // for i
+			} // for jj
+		} // for kk
+	} // multiplyBlock
+
+	/**
+	 * Copies a block of a row-major double array.
+	 * @param x array to copy from
+	 * @param width number of columns of x
+	 * @param row first row of the block
+	 * @param col first column of the block
+	 * @param height number of rows in the block
+	 * @param blockWidth number of columns in the block
+	 * @return the block, row-major
+	 */
+	private static double [] block(double [] x, int width, int row, int col, int height, int blockWidth) {
+		double [] output = new double[height * blockWidth];
+
+		for (int i = 0; i < height; i++) {
+			System.arraycopy(x, (row + i) * width + col, output, i * blockWidth, blockWidth);
+		} // for i
+
+		return output;
+	} // block
+
+	/**
+	 * Overwrites a block of a row-major double array.
+	 * @param x array to write
+	 * @param width number of columns of x
+	 * @param row first row of the block
+	 * @param col first column of the block
+	 * @param block new entries, row-major
+	 * @param height number of rows in the block
+	 * @param blockWidth number of columns in the block
+	 */
+	private static void setBlock(double [] x, int width, int row, int col, double [] block, int height, int blockWidth) {
+		for (int i = 0; i < height; i++) {
+			System.arraycopy(block, i * blockWidth, x, (row + i) * width + col, blockWidth);
+		} // for i
+	} // setBlock
+
+	/**
+	 * Adds a multiple of one double array to another of the same length: x = x + sign * y.
+	 * @param x array to change
+	 * @param y array to add
+	 * @param sign 1 to add, -1 to subtract
+	 */
+	private static void add(double [] x, double [] y, double sign) {
+		for (int i = 0; i < x.length; i++) {
+			x[i] += sign * y[i];
+		} // for i
+	} // add
+
+	/**
+	 * Adds or subtracts two double arrays of the same length into a new array.
+	 * @param x first array
+	 * @param y second array
+	 * @param sign 1 for x + y, -1 for x - y
+	 * @return the result
+	 */
+	private static double [] sum(double [] x, double [] y, double sign) {
+		double [] output = x.clone();
+		add(output, y, sign);
+		return output;
+	} // sum
+
+	/**
+	 * Adds or subtracts two storages of the same size into new storage.
+	 * @param x first storage
+	 * @param y second storage
+	 * @param subtract true for x - y, false for x + y
+	 * @return storage holding the result
+	 */
+	private static PackedStorage sum(PackedStorage x, PackedStorage y, boolean subtract) {
+		PackedStorage output = (PackedStorage)x.copy();
+		output.add(y, subtract);
+		return output;
+	} // sum
+
+} // StrassenMultiply
@@ -0,0 +1,604 @@
+/**
+ * Matrix storage kept on disk instead of the heap, for matrices too large to hold in memory. The entries are
+ * split into square tiles, each with a fixed slot in a memory-mapped scratch file. Only a bounded number of
+ * tiles are held on the heap at once, in a least recently used cache: a tile is read from the map the first
+ * time it is needed, and written back when it is evicted if it was changed.
+ * Each cached tile is packed storage, so the work inside a tile uses the packed kernels.
+ * Tiles are pinned while an operation is using them, so they cannot be evicted part way through.
+ * Not thread-safe, even for reads alone, so parallel solves and products read it from one thread.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+class TileStorage extends MatrixStorage implements Closeable {
+	private static final long SEGMENT = 1L << 30;	// most bytes mapped by one buffer
+
+	private final int rows;
+	private final int cols;
+	private final int tile;				// rows and columns in a full tile
+	private final int tileRows;			// number of tiles down
+	private final int tileCols;			// number of tiles across
+	private final int capacity;			// most tiles held on the heap
+	private final long slot;			// bytes of file per tile: numerators, then denominators
+	private final int slotsPerSegment;
+	private final Path path;
+	private final FileChannel channel;
+	private final MappedByteBuffer [] segments;
+	private final LinkedHashMap<Long, Tile> cache = new LinkedHashMap<Long, Tile>(16, 0.75f, true);	// in access order
+	private final BitSet written = new BitSet();	// tiles whose slot has been written; the others are all 0
+	private final HashMap<Long, HashMap<Integer, Fraction>> big = new HashMap<Long, HashMap<Integer, Fraction>>();	// entries that do not fit in longs, as of each tile's last store
+
+	/**
+	 * A tile held on the heap.
+	 */
+	private static class Tile {
+		final long key;
+		final PackedStorage data;
+		int pins = 0;
+		boolean dirty = false;
+
+		Tile(long key, PackedStorage data) {
+			this.key = key;
+			this.data = data;
+		} // Tile
+	} // Tile
+
+	/**
+	 * Constructor. All entries start as 0. The scratch file is created in the temporary directory
+	 * and deleted by close.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param tile rows and columns in each tile
+	 * @param capacity most tiles to hold on the heap at once, at least 4
+	 * @throws IllegalArgumentException if a size is not positive or the capacity is less than 4
+	 * @throws UncheckedIOException if the scratch file cannot be created
+	 */
+	TileStorage(int rows, int cols, int tile, int capacity) {
+		if (rows < 1 || cols < 1 || tile < 1 || capacity < 4) {
+			throw new IllegalArgumentException("invalid tiled storage: " + rows + "x" + cols + ", tile " + tile + ", capacity " + capacity);
+		} // if
+		this.rows = rows;
+		this.cols = cols;
+		this.tile = tile;
+		this.capacity = capacity;
+		tileRows = (rows + tile - 1) / tile;
+		tileCols = (cols + tile - 1) / tile;
+		slot = 16L * tile * tile;
+		if (slot > SEGMENT) {
+			throw new IllegalArgumentException("tiles of " + tile + "x" + tile + " are too large to map");
+		} // if
+		slotsPerSegment = (int)(SEGMENT / slot);
+
+		try {
+			path = Files.createTempFile("matrix", ".tiles");
+			path.toFile().deleteOnExit();
+			channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			long slots = (long)tileRows * tileCols;
+			segments = new MappedByteBuffer[(int)((slots + slotsPerSegment - 1) / slotsPerSegment)];
+			for (int k = 0; k < segments.length; k++) {
+				long count = Math.min(slotsPerSegment, slots - (long)k * slotsPerSegment);
+				segments[k] = channel.map(FileChannel.MapMode.READ_WRITE, k * slotsPerSegment * slot, count * slot);
+			} // for k
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} // catch
+	} // TileStorage
+
+	int numRows() {
+		return rows;
+	} // numRows
+
+	int numCols() {
+		return cols;
+	} // numCols
+
+	/**
+	 * Gets the number of rows and columns in a full tile.
+	 * @return tile size
+	 */
+	int tileSize() {
+		return tile;
+	} // tileSize
+
+	Fraction get(int row, int col) {
+		return tile(row / tile, col / tile).data.get(row % tile, col % tile);
+	} // get
+
+	boolean isZero(int row, int col) {
+		return tile(row / tile, col / tile).data.isZero(row % tile, col % tile);
+	} // isZero
+
+	void set(int row, int col, Fraction f) {
+		modified();
+		Tile t = tile(row / tile, col / tile);
+		t.data.set(row % tile, col % tile, f);
+		t.dirty = true;
+	} // set
+
+	/**
+	 * Copies the tiles into a new scratch file, tile by tile, so the copy never needs more heap than the cache.
+	 */
+	MatrixStorage copy() {
+		TileStorage output = new TileStorage(rows, cols, tile, capacity);
+
+		for (int i = 0; i < tileRows; i++) {
+			for (int j = 0; j < tileCols; j++) {
+				Tile source = pin(i, j);
+				Tile target = output.pin(i, j);
+				target.data.setBlock(0, 0, source.data);
+				target.dirty = true;
+				output.unpin(target);
+				unpin(source);
+			} // for j
+		} // for i
+
+		return output;
+	} // copy
+
+	void swapRows(int row1, int row2) {
+		modified();
+		for (int j = 0; j < tileCols; j++) {
+			Tile first = pin(row1 / tile, j);
+			Tile second = pin(row2 / tile, j);
+			if (first == second) {
+				first.data.swapRows(row1 % tile, row2 % tile);
+			} else {
+				for (int c = 0; c < first.data.numCols(); c++) {
+					Fraction temp = first.data.get(row1 % tile, c);
+					first.data.set(row1 % tile, c, second.data.get(row2 % tile, c));
+					second.data.set(row2 % tile, c, temp);
+				} // for c
+			} // else
+			first.dirty = true;
+			second.dirty = true;
+			unpin(second);
+			unpin(first);
+		} // for j
+	} // swapRows
+
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		modified();
+		addRowMultiple(target, source, coefficient, fromCol, cols);
+	} // addRowMultiple
+
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		modified();
+		for (int j = fromCol / tile; j < tileCols; j++) {
+			Tile t = tile(row / tile, j);
+			t.data.scaleRow(row % tile, coefficient, Math.max(fromCol - j * tile, 0));
+			t.dirty = true;
+		} // for j
+	} // scaleRow
+
+	/**
+	 * Multiplies tile by tile into new tiled storage when the other storage is tiled the same way:
+	 * each output tile is the sum over k of tile (i, k) of this times tile (k, j) of the other,
+	 * so at most three tiles are in use at once. Otherwise falls back to the default product.
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		if (!(other instanceof TileStorage) || ((TileStorage)other).tile != tile) {
+			return super.multiply(other);
+		} // if
+
+		TileStorage b = (TileStorage)other;
+		TileStorage output = new TileStorage(rows, b.cols, tile, capacity);
+
+		for (int i = 0; i < tileRows; i++) {
+			for (int j = 0; j < b.tileCols; j++) {
+				Tile c = output.pin(i, j);
+				for (int k = 0; k < tileCols; k++) {
+					Tile left = pin(i, k);
+					Tile right = b.pin(k, j);
+					left.data.multiplyBlock(right.data, c.data, 0, left.data.numRows(), 0, left.data.numCols(), 0, right.data.numCols());
+					b.unpin(right);
+					unpin(left);
+				} // for k
+				c.dirty = true;
+				output.unpin(c);
+			} // for j
+		} // for i
+
+		return output;
+	} // multiply
+
+	/**
+	 * Transposes tile by tile into new tiled storage: tile (i, j) becomes tile (j, i) transposed.
+	 */
+	MatrixStorage transpose() {
+		TileStorage output = new TileStorage(cols, rows, tile, capacity);
+
+		for (int i = 0; i < tileRows; i++) {
+			for (int j = 0; j < tileCols; j++) {
+				Tile source = pin(i, j);
+				Tile target = output.pin(j, i);
+				for (int r = 0; r < source.data.numRows(); r++) {
+					for (int c = 0; c < source.data.numCols(); c++) {
+						if (!source.data.isZero(r, c)) {
+							target.data.set(c, r, source.data.get(r, c));
+						} // if
+					} // for c
+				} // for r
+				target.dirty = true;
+				output.unpin(target);
+				unpin(source);
+			} // for j
+		} // for i
+
+		return output;
+	} // transpose
+
+	/**
+	 * Blocked Gaussian elimination, one panel of tile columns at a time, so each tile is read and written
+	 * a bounded number of times per panel instead of once per pivot.
+	 * The panel is reduced first, storing each multiplier where the entry it cancelled was. The pivot rows are
+	 * then finished across the rest of the matrix, and every tile below them is updated with one block product:
+	 * A22 = A22 - L21 * U12. Row swaps cover whole rows, so the multipliers move with their rows.
+	 * The pivots and row operations are the same ones Matrix.convertToREF makes, so the result is the same.
+	 * @param lu true to pivot on the diagonal and keep the multipliers below it, as an LU decomposition;
+	 * false to reduce to Row Echelon Form with 0 below each pivot
+	 * @param permutation records the row swaps if not null: row i of the result is row permutation[i] of the input
+	 * @return the number of row swaps made
+	 */
+	int eliminate(boolean lu, int [] permutation) {
+		modified();
+		int swaps = 0;
+		int pivotRow = 0;
+		ArrayList<int []> pivots = new ArrayList<int []>();	// row and column of each pivot in the panel
+
+		for (int panel = 0; panel < tileCols && pivotRow < rows; panel++) {
+			int panelEnd = Math.min((panel + 1) * tile, cols);
+			int firstRow = pivotRow;
+			pivots.clear();
+
+			// reduce the panel one column at a time, touching only the panel's tiles
+			for (int col = panel * tile; col < panelEnd && pivotRow < rows; col++) {
+				int row = pivotRow;
+				while (row < rows && isZero(row, col)) {
+					row++;
+				} // while
+
+				if (row == rows) {
+					if (lu) {
+						pivotRow++;
+					} // if
+					continue;
+				} else if (row != pivotRow) {
+					swapRows(row, pivotRow);
+					swaps++;
+					if (permutation != null) {
+						int temp = permutation[row];
+						permutation[row] = permutation[pivotRow];
+						permutation[pivotRow] = temp;
+					} // if
+				} // else if
+
+				Fraction pivot = get(pivotRow, col);
+				for (int i = pivotRow + 1; i < rows; i++) {
+					if (!isZero(i, col)) {
+						Fraction multiplier = get(i, col).divide(pivot);
+						addRowMultiple(i, pivotRow, multiplier.negate(), col + 1, panelEnd);
+						set(i, col, multiplier);
+					} // if
+				} // for i
+
+				pivots.add(new int[] {pivotRow, col});
+				pivotRow++;
+			} // for col
+
+			if (!pivots.isEmpty()) {
+				updateTrailing(panel, firstRow, pivotRow, pivots);
+				if (!lu) {
+					clearMultipliers(pivots);
+				} // if
+			} // if
+		} // for panel
+
+		return swaps;
+	} // eliminate
+
+	/**
+	 * Applies a panel's row operations to every tile right of the panel. The rows the panel pivoted on are
+	 * finished first, which is a triangular solve; then each tile below them gets a block product.
+	 * @param panel tile column of the panel
+	 * @param firstRow first row the panel pivoted on
+	 * @param endRow one past the last row the panel pivoted on
+	 * @param pivots row and column of each pivot, in order
+	 */
+	private void updateTrailing(int panel, int firstRow, int endRow, ArrayList<int []> pivots) {
+		int count = pivots.size();
+
+		for (int j = panel + 1; j < tileCols; j++) {
+			int width = Math.min(tile, cols - j * tile);
+
+			// finish the panel's rows in this tile column: U12 = L11^-1 A12
+			PackedStorage u = new PackedStorage(endRow - firstRow, width);
+			for (int r = firstRow; r < endRow; r++) {
+				Tile t = tile(r / tile, j);
+				for (int c = 0; c < width; c++) {
+					u.set(r - firstRow, c, t.data.get(r % tile, c));
+				} // for c
+			} // for r
+			for (int [] pivot : pivots) {
+				for (int r = pivot[0] + 1; r < endRow; r++) {
+					if (!isZero(r, pivot[1])) {
+						u.addRowMultiple(r - firstRow, pivot[0] - firstRow, get(r, pivot[1]).negate(), 0);
+					} // if
+				} // for r
+			} // for pivot
+			PackedStorage pivotRows = new PackedStorage(count, width);
+			for (int r = firstRow; r < endRow; r++) {
+				Tile t = tile(r / tile, j);
+				for (int c = 0; c < width; c++) {
+					t.data.set(r % tile, c, u.get(r - firstRow, c));
+				} // for c
+				t.dirty = true;
+			} // for r
+			for (int k = 0; k < count; k++) {
+				pivotRows.setBlock(k, 0, u.block(pivots.get(k)[0] - firstRow, 0, 1, width));
+			} // for k
+
+			// update every tile below: A22 = A22 - L21 * U12
+			for (int i = endRow / tile; i < tileRows; i++) {
+				Tile left = pin(i, panel);
+				Tile target = pin(i, j);
+				int height = target.data.numRows();
+				PackedStorage negated = new PackedStorage(height, count);
+				for (int r = Math.max(endRow - i * tile, 0); r < height; r++) {
+					for (int k = 0; k < count; k++) {
+						int col = pivots.get(k)[1] - panel * tile;
+						if (!left.data.isZero(r, col)) {
+							negated.set(r, k, left.data.get(r, col).negate());
+						} // if
+					} // for k
+				} // for r
+				negated.multiplyBlock(pivotRows, target.data, 0, height, 0, count, 0, width);
+				target.dirty = true;
+				unpin(target);
+				unpin(left);
+			} // for i
+		} // for j
+	} // updateTrailing
+
+	/**
+	 * Sets the multipliers stored below each pivot back to 0, as they are in Row Echelon Form.
+	 * @param pivots row and column of each pivot
+	 */
+	private void clearMultipliers(ArrayList<int []> pivots) {
+		Fraction zero = Fraction.valueOf(0);
+
+		for (int [] pivot : pivots) {
+			for (int i = pivot[0] + 1; i < rows; i++) {
+				if (!isZero(i, pivot[1])) {
+					set(i, pivot[1], zero);
+				} // if
+			} // for i
+		} // for pivot
+	} // clearMultipliers
+
+	/**
+	 * Adds a multiple of one row to another over a range of columns: target = target + coefficient * source.
+	 * @param target the row that is changed
+	 * @param source the row that is added
+	 * @param coefficient multiple of the source row
+	 * @param fromCol first column to update
+	 * @param toCol one past the last column to update
+	 */
+	private void addRowMultiple(int target, int source, Fraction coefficient, int fromCol, int toCol) {
+		FractionAccumulator sum = new FractionAccumulator();
+
+		for (int j = fromCol / tile; j * tile < toCol; j++) {
+			Tile t = pin(target / tile, j);
+			Tile s = pin(source / tile, j);
+			int from = Math.max(fromCol - j * tile, 0);
+			int to = Math.min(toCol - j * tile, t.data.numCols());
+			if (t == s && to == t.data.numCols()) {
+				t.data.addRowMultiple(target % tile, source % tile, coefficient, from);
+			} else {
+				for (int c = from; c < to; c++) {
+					if (!s.data.isZero(source % tile, c)) {
+						sum.set(t.data.get(target % tile, c));
+						sum.multiplyAdd(coefficient, s.data.get(source % tile, c));
+						t.data.set(target % tile, c, sum.toFraction());
+					} // if
+				} // for c
+			} // else
+			t.dirty = true;
+			unpin(s);
+			unpin(t);
+		} // for j
+	} // addRowMultiple
+
+	/**
+	 * Gets a tile without pinning it. Only safe until the next tile is loaded.
+	 * @param i tile row
+	 * @param j tile column
+	 * @return the tile
+	 */
+	private Tile tile(int i, int j) {
+		Tile output = pin(i, j);
+		output.pins--;
+		return output;
+	} // tile
+
+	/**
+	 * Gets a tile and pins it in the cache, loading it if it is not there. Every pin must be matched by unpin.
+	 * @param i tile row
+	 * @param j tile column
+	 * @return the tile
+	 */
+	private Tile pin(int i, int j) {
+		long key = (long)i * tileCols + j;
+		Tile output = cache.get(key);
+
+		if (output == null) {
+			if (cache.size() >= capacity) {
+				evict();
+			} // if
+			output = load(key, Math.min(tile, rows - i * tile), Math.min(tile, cols - j * tile));
+			cache.put(key, output);
+		} // if
+
+		output.pins++;
+		return output;
+	} // pin
+
+	/**
+	 * Releases a pin taken by pin.
+	 * @param t the tile
+	 */
+	private void unpin(Tile t) {
+		t.pins--;
+	} // unpin
+
+	/**
+	 * Evicts the least recently used tile that is not pinned, writing it back if it was changed.
+	 * @throws IllegalStateException if every cached tile is pinned
+	 */
+	private void evict() {
+		Iterator<Tile> iterator = cache.values().iterator();
+
+		while (iterator.hasNext()) {
+			Tile t = iterator.next();
+			if (t.pins == 0) {
+				if (t.dirty) {
+					store(t);
+				} // if
+				iterator.remove();
+				return;
+			} // if
+		} // while
+
+		throw new IllegalStateException("all " + capacity + " cached tiles are in use");
+	} // evict
+
+	/**
+	 * Reads a tile from its slot in the file.
+	 * @param key tile row * tileCols + tile column
+	 * @param height rows in the tile
+	 * @param width columns in the tile
+	 * @return the tile
+	 */
+	private Tile load(long key, int height, int width) {
+		if (!written.get((int)key)) {
+			return new Tile(key, new PackedStorage(height, width));
+		} // if
+
+		long [] numerators = new long[height * width];
+		long [] denominators = new long[height * width];
+		LongBuffer buffer = slot(key);
+		buffer.get(0, numerators);
+		buffer.get(tile * tile, denominators);
+
+		// entries that do not fit in longs are marked 0/0 in the slot; give them a placeholder, then set them
+		HashMap<Integer, Fraction> entries = big.get(key);
+		if (entries != null) {
+			for (Integer index : entries.keySet()) {
+				denominators[index] = 1;
+			} // for index
+		} // if
+		PackedStorage data = new PackedStorage(height, width, numerators, denominators);
+		if (entries != null) {
+			for (Integer index : entries.keySet()) {
+				data.set(index / width, index % width, entries.get(index));
+			} // for index
+		} // if
+
+		return new Tile(key, data);
+	} // load
+
+	/**
+	 * Writes a tile back to its slot in the file.
+	 * @param t the tile
+	 */
+	private void store(Tile t) {
+		PackedStorage data = t.data;
+		int width = data.numCols();
+		int size = data.numRows() * width;
+		long [] numerators = new long[size];
+		long [] denominators = new long[size];
+		HashMap<Integer, Fraction> entries = null;
+
+		for (int index = 0; index < size; index++) {
+			Fraction f = data.get(index / width, index % width);
+			if (f.isBig()) {
+				if (entries == null) {
+					entries = new HashMap<Integer, Fraction>();
+				} // if
+				entries.put(index, f);
+			} else {
+				numerators[index] = f.getNumerator();
+				denominators[index] = f.getDenominator();
+			} // else
+		} // for index
+
+		LongBuffer buffer = slot(t.key);
+		buffer.put(0, numerators);
+		buffer.put(tile * tile, denominators);
+		if (entries != null) {
+			big.put(t.key, entries);
+		} else {
+			big.remove(t.key);
+		} // else
+		written.set((int)t.key);
+		t.dirty = false;
+	} // store
+
+	/**
+	 * Gets the mapped slot of a tile.
+	 * @param key tile row * tileCols + tile column
+	 * @return the slot: tile * tile numerators, then tile * tile denominators
+	 */
+	private LongBuffer slot(long key) {
+		MappedByteBuffer segment = segments[(int)(key / slotsPerSegment)];
+		long offset = (key % slotsPerSegment) * slot;
+		return segment.slice((int)offset, (int)slot).asLongBuffer();
+	} // slot
+
+	/**
+	 * Reads load and evict tiles, so they cannot run on several threads at once.
+	 */
+	boolean concurrentReads() {
+		return false;
+	} // concurrentReads
+
+	/**
+	 * Deletes the scratch file, for temporary copies such as the ones rank and LUDecomposition make.
+	 * @throws UncheckedIOException if the file cannot be deleted
+	 */
+	void release() {
+		try {
+			close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} // catch
+	} // release
+
+	/**
+	 * Deletes the scratch file. The storage cannot be used afterwards.
+	 * @throws IOException if the file cannot be deleted
+	 */
+	public void close() throws IOException {
+		cache.clear();
+		big.clear();
+		channel.close();
+		Files.deleteIfExists(path);
+	} // close
+
+} // TileStorage
@@ -0,0 +1,153 @@
+/**
+ * A matrix kept on disk in square tiles, for matrices larger than the heap. Only the tiles in a bounded
+ * cache are on the heap; see TileStorage. Products and transposes of tiled matrices are tiled, and
+ * convertToREF and the LU decomposition (and so det, solve and rank) use blocked elimination, which
+ * reads and writes each tile a bounded number of times per panel of columns instead of once per pivot.
+ * Every other operation works too, through single entries, but is much slower.
+ * The tile size and cache size can be set with -Dmatrix.tile and -Dmatrix.tileCache.
+ * Each tiled matrix has a scratch file; close it when done. Results such as products, transposes and copies
+ * are new tiled matrices with their own files. The copies that det and rank work on are deleted when they
+ * finish; the saved LU decomposition is deleted when the matrix changes or is closed.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public class TiledMatrix extends Matrix implements AutoCloseable {
+	private static final int TILE = Integer.getInteger("matrix.tile", 256);
+	private static final int CACHE = Integer.getInteger("matrix.tileCache", 64);
+
+	/**
+	 * Constructor. All entries start as 0. Uses the default tile and cache sizes.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 */
+	TiledMatrix(int rows, int cols) {
+		this(rows, cols, TILE, CACHE);
+	} // TiledMatrix
+
+	/**
+	 * Constructor. All entries start as 0.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param tile rows and columns in each tile
+	 * @param cacheTiles most tiles to hold on the heap at once, at least 4
+	 * @throws IllegalArgumentException if a size is not positive or cacheTiles is less than 4
+	 */
+	TiledMatrix(int rows, int cols, int tile, int cacheTiles) {
+		super(new TileStorage(rows, cols, tile, cacheTiles));
+	} // TiledMatrix
+
+	/**
+	 * Constructor. Uses the given storage directly, without copying it.
+	 * @param storage storage holding the entries
+	 */
+	private TiledMatrix(TileStorage storage) {
+		super(storage);
+	} // TiledMatrix
+
+	/**
+	 * Copies a matrix into a new tiled matrix with the default tile and cache sizes, one tile at a time.
+	 * A matrix opened with MatrixFile.read in the fixed layout is read straight from its file, so neither
+	 * copy is ever on the heap.
+	 * @param matrix matrix to copy
+	 * @return tiled copy of the matrix
+	 */
+	public static TiledMatrix of(Matrix matrix) {
+		return of(matrix, TILE, CACHE);
+	} // of
+
+	/**
+	 * Copies a matrix into a new tiled matrix, one tile at a time.
+	 * @param matrix matrix to copy
+	 * @param tile rows and columns in each tile
+	 * @param cacheTiles most tiles to hold on the heap at once, at least 4
+	 * @return tiled copy of the matrix
+	 * @throws IllegalArgumentException if tile is not positive or cacheTiles is less than 4
+	 */
+	public static TiledMatrix of(Matrix matrix, int tile, int cacheTiles) {
+		MatrixStorage source = matrix.m;
+		TiledMatrix output = new TiledMatrix(source.numRows(), source.numCols(), tile, cacheTiles);
+
+		for (int row = 0; row < source.numRows(); row += tile) {
+			for (int col = 0; col < source.numCols(); col += tile) {
+				for (int i = row; i < Math.min(row + tile, source.numRows()); i++) {
+					for (int j = col; j < Math.min(col + tile, source.numCols()); j++) {
+						if (!source.isZero(i, j)) {
+							output.m.set(i, j, source.get(i, j));
+						} // if
+					} // for j
+				} // for i
+			} // for col
+		} // for row
+
+		return output;
+	} // of
+
+	/**
+	 * Converts the matrix to Row Echelon Form in place with blocked elimination. The result is the same as
+	 * Matrix.convertToREF gives. With a listener, or with fraction-free elimination on, the elimination is
+	 * done one pivot at a time instead so each step can be reported.
+	 * @param listener receives each step, or null for no tracing
+	 * @return matrix in REF
+	 */
+	public Matrix convertToREF(StepListener listener) {
+		if (listener != null || fractionFree) {
+			return super.convertToREF(listener);
+		} // if
+
+		((TileStorage)m).eliminate(false, null);
+		return this;
+	} // convertToREF
+
+	/**
+	 * Multiplies two matrices together. If both are tiled, the product is a new tiled matrix,
+	 * multiplied tile by tile.
+	 * @param m right multiplied matrix
+	 * @param listener receives the factors and the product, or null for no tracing
+	 * @return A new matrix
+	 * @throws DimensionMismatchException if this matrix does not have as many columns as m has rows
+	 */
+	public Matrix multiply(Matrix m, StepListener listener) {
+		Matrix output = super.multiply(m, listener);
+		return (output.m instanceof TileStorage)? new TiledMatrix((TileStorage)output.m) : output;
+	} // multiply
+
+	/**
+	 * Finds the transpose of this matrix, tile by tile. Unlike the view Matrix returns, each call makes a new
+	 * tiled matrix with its own scratch file, which the caller must close.
+	 * @return the transpose of this matrix
+	 */
+	public Matrix findTranspose() {
+		return new TiledMatrix((TileStorage)m.transpose());
+	} // findTranspose
+
+	/**
+	 * Copies the matrix into a new tiled matrix, tile by tile.
+	 * @return a copy of the matrix
+	 */
+	public Matrix copy() {
+		return new TiledMatrix((TileStorage)m.copy());
+	} // copy
+
+	/**
+	 * Deletes the scratch file, and the one of the saved LU decomposition. The matrix cannot be used afterwards.
+	 * @throws UncheckedIOException if a file cannot be deleted
+	 */
+	public void close() {
+		if (lu != null) {
+			lu.release();
+			lu = null;
+		} // if
+		try {
+			((TileStorage)m).close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} // catch
+	} // close
+
+} // TiledMatrix
@@ -0,0 +1,360 @@
+/**
+ * Storage that reads another storage through a mapping of indices instead of holding entries of its own, so
+ * a transpose, a block, a rotation or a reordering of rows costs nothing to make. Views never write to the
+ * storage they read: the first write to a view copies its entries into storage of its own, and every later
+ * read and write goes there. A view is also a snapshot: just before the storage it reads is changed, the view
+ * copies its entries, so it always holds what the storage held when the view was made.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+abstract class ViewStorage extends MatrixStorage {
+	private MatrixStorage base;				// the storage read through the view; null once the view has copied its entries
+	private MatrixStorage written = null;	// the entries once they have been copied
+
+	/**
+	 * Constructor.
+	 * @param base storage to read
+	 */
+	private ViewStorage(MatrixStorage base) {
+		this.base = base;
+		base.addView(this);
+	} // ViewStorage
+
+	/**
+	 * Creates a view of the transpose: entry (i, j) is entry (j, i) of the base.
+	 * @param base storage to read
+	 * @return the view
+	 */
+	static ViewStorage transpose(MatrixStorage base) {
+		return new Transpose(base);
+	} // transpose
+
+	/**
+	 * Creates a view of a block of the base.
+	 * @param base storage to read
+	 * @param row first row of the block
+	 * @param col first column of the block
+	 * @param height number of rows in the block
+	 * @param width number of columns in the block
+	 * @return the view
+	 * @throws IllegalArgumentException if the block is empty or not inside the base
+	 */
+	static ViewStorage submatrix(MatrixStorage base, int row, int col, int height, int width) {
+		if (row < 0 || col < 0 || height < 1 || width < 1 || row + height > base.numRows() || col + width > base.numCols()) {
+			throw new IllegalArgumentException("invalid submatrix of a " + base.numRows() + "x" + base.numCols() + " matrix: "
+					+ height + "x" + width + " at (" + row + ", " + col + ")");
+		} // if
+		return new Window(base, row, col, height, width);
+	} // submatrix
+
+	/**
+	 * Creates a view of the base rotated 180 degrees: entry (i, j) is entry (rows - 1 - i, cols - 1 - j) of the base.
+	 * @param base storage to read
+	 * @return the view
+	 */
+	static ViewStorage rotated(MatrixStorage base) {
+		return new Rotated(base);
+	} // rotated
+
+	/**
+	 * Creates a view of the base with its rows reordered: row i is row permutation[i] of the base.
+	 * Swapping rows of the view only swaps the permutation, so it does not copy any entries.
+	 * @param base storage to read
+	 * @param permutation row of the base for each row of the view; copied
+	 * @return the view
+	 * @throws IllegalArgumentException if the permutation does not have one entry per row
+	 */
+	static ViewStorage permuted(MatrixStorage base, int [] permutation) {
+		if (permutation.length != base.numRows()) {
+			throw new IllegalArgumentException("a permutation of " + permutation.length + " rows cannot reorder " + base.numRows() + " rows");
+		} // if
+		return new Permuted(base, permutation.clone());
+	} // permuted
+
+	/**
+	 * Gets the row of the base that holds an entry of the view.
+	 * @param row row of the view
+	 * @param col column of the view
+	 * @return row of the base
+	 */
+	abstract int baseRow(int row, int col);
+
+	/**
+	 * Gets the column of the base that holds an entry of the view.
+	 * @param row row of the view
+	 * @param col column of the view
+	 * @return column of the base
+	 */
+	abstract int baseCol(int row, int col);
+
+	Fraction get(int row, int col) {
+		if (written != null) {
+			return written.get(row, col);
+		} // if
+		return base.get(baseRow(row, col), baseCol(row, col));
+	} // get
+
+	boolean isZero(int row, int col) {
+		if (written != null) {
+			return written.isZero(row, col);
+		} // if
+		return base.isZero(baseRow(row, col), baseCol(row, col));
+	} // isZero
+
+	void set(int row, int col, Fraction f) {
+		modified();
+		own().set(row, col, f);
+	} // set
+
+	void swapRows(int row1, int row2) {
+		modified();
+		own().swapRows(row1, row2);
+	} // swapRows
+
+	void addRowMultiple(int target, int source, Fraction coefficient, int fromCol) {
+		modified();
+		own().addRowMultiple(target, source, coefficient, fromCol);
+	} // addRowMultiple
+
+	void scaleRow(int row, Fraction coefficient, int fromCol) {
+		modified();
+		own().scaleRow(row, coefficient, fromCol);
+	} // scaleRow
+
+	boolean concurrentReads() {
+		return (written != null)? written.concurrentReads() : base.concurrentReads();
+	} // concurrentReads
+
+	/**
+	 * Copies the entries into new storage, which is not a view.
+	 */
+	MatrixStorage copy() {
+		return (written != null)? written.copy() : entries();
+	} // copy
+
+	/**
+	 * Multiplies a copy of the entries, so the product uses the kernels of real storage instead of reading
+	 * through the view. Copying is O(n^2), against O(n^3) for the product.
+	 */
+	MatrixStorage multiply(MatrixStorage other) {
+		return ((written != null)? written : entries()).multiply(other);
+	} // multiply
+
+	/**
+	 * Copies the entries of the view into sparse storage if the base is sparse, packed storage otherwise.
+	 * Views that can copy faster override this.
+	 * @return storage holding the entries
+	 */
+	MatrixStorage entries() {
+		MatrixStorage output = (base instanceof SparseStorage)? new SparseStorage(numRows(), numCols()) : new PackedStorage(numRows(), numCols());
+
+		for (int i = 0; i < numRows(); i++) {
+			for (int j = 0; j < numCols(); j++) {
+				if (!isZero(i, j)) {
+					output.set(i, j, get(i, j));
+				} // if
+			} // for j
+		} // for i
+
+		return output;
+	} // entries
+
+	/**
+	 * Copies the entries so the view no longer reads the base. Called by the base just before it changes.
+	 */
+	void detach() {
+		if (written == null) {
+			written = entries();
+			base = null;
+		} // if
+	} // detach
+
+	/**
+	 * Stops the view from reading the base without copying anything, for views that are no longer needed,
+	 * so the base does not copy them when it changes. The view cannot be used afterwards.
+	 */
+	void release() {
+		if (base != null) {
+			base.removeView(this);
+			base = null;
+		} // if
+	} // release
+
+	/**
+	 * Determines if the view has copied its entries.
+	 * @return true if the entries have been copied, false if the view still reads the base
+	 */
+	boolean isDetached() {
+		return (written != null);
+	} // isDetached
+
+	/**
+	 * Gets the storage that writes go to, copying the entries the first time.
+	 * @return storage holding the entries of the view
+	 */
+	private MatrixStorage own() {
+		if (written == null) {
+			base.removeView(this);
+			detach();
+		} // if
+		return written;
+	} // own
+
+	/**
+	 * Gets the base, for views that copy straight from it.
+	 * @return the base
+	 */
+	MatrixStorage base() {
+		return base;
+	} // base
+
+	/**
+	 * The transpose of the base.
+	 */
+	private static final class Transpose extends ViewStorage {
+		private final int rows;
+		private final int cols;
+
+		Transpose(MatrixStorage base) {
+			super(base);
+			rows = base.numCols();
+			cols = base.numRows();
+		} // Transpose
+
+		int numRows() {
+			return rows;
+		} // numRows
+
+		int numCols() {
+			return cols;
+		} // numCols
+
+		int baseRow(int row, int col) {
+			return col;
+		} // baseRow
+
+		int baseCol(int row, int col) {
+			return row;
+		} // baseCol
+
+		/**
+		 * Lets the base transpose itself, which keeps its kind of storage.
+		 */
+		MatrixStorage entries() {
+			return base().transpose();
+		} // entries
+	} // Transpose
+
+	/**
+	 * A block of the base.
+	 */
+	private static final class Window extends ViewStorage {
+		private final int row;
+		private final int col;
+		private final int height;
+		private final int width;
+
+		Window(MatrixStorage base, int row, int col, int height, int width) {
+			super(base);
+			this.row = row;
+			this.col = col;
+			this.height = height;
+			this.width = width;
+		} // Window
+
+		int numRows() {
+			return height;
+		} // numRows
+
+		int numCols() {
+			return width;
+		} // numCols
+
+		int baseRow(int i, int j) {
+			return row + i;
+		} // baseRow
+
+		int baseCol(int i, int j) {
+			return col + j;
+		} // baseCol
+	} // Window
+
+	/**
+	 * The base rotated 180 degrees.
+	 */
+	private static final class Rotated extends ViewStorage {
+		private final int rows;
+		private final int cols;
+
+		Rotated(MatrixStorage base) {
+			super(base);
+			rows = base.numRows();
+			cols = base.numCols();
+		} // Rotated
+
+		int numRows() {
+			return rows;
+		} // numRows
+
+		int numCols() {
+			return cols;
+		} // numCols
+
+		int baseRow(int row, int col) {
+			return rows - 1 - row;
+		} // baseRow
+
+		int baseCol(int row, int col) {
+			return cols - 1 - col;
+		} // baseCol
+	} // Rotated
+
+	/**
+	 * The rows of the base in another order.
+	 */
+	private static final class Permuted extends ViewStorage {
+		private final int [] permutation;	// row of the base for each row of the view
+		private final int cols;
+
+		Permuted(MatrixStorage base, int [] permutation) {
+			super(base);
+			this.permutation = permutation;
+			cols = base.numCols();
+		} // Permuted
+
+		int numRows() {
+			return permutation.length;
+		} // numRows
+
+		int numCols() {
+			return cols;
+		} // numCols
+
+		int baseRow(int row, int col) {
+			return permutation[row];
+		} // baseRow
+
+		int baseCol(int row, int col) {
+			return col;
+		} // baseCol
+
+		/**
+		 * Swaps the permutation instead of copying the entries, until the view has been copied for another reason.
+		 */
+		void swapRows(int row1, int row2) {
+			if (isDetached()) {
+				super.swapRows(row1, row2);
+				return;
+			} // if
+
+			modified();
+			int temp = permutation[row1];
+			permutation[row1] = permutation[row2];
+			permutation[row2] = temp;
+		} // swapRows
+	} // Permuted
+
+} // ViewStorage
@@ -0,0 +1,158 @@
+/**
+ * Builds the inputs and operations for the JMH benchmarks in jmh/benchmarks. JMH does not accept benchmark
+ * classes in the default package, and classes in a named package cannot name the matrix classes, so the
+ * benchmarks look these methods up by reflection once, in their setup, and then only call the returned
+ * functions. Every operation that changes its input or saves its result starts from a copy, so each call
+ * does the full work.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+public class BenchmarkFixtures {
+	public static final int FRACTIONS = 1024;	// fractions a fraction operation cycles through
+
+	/**
+	 * Creates a Fraction operation on the i-th of a fixed set of random fractions.
+	 * @param name constructLongs, valueOf, constructInt, constructDouble, add, multiply, sumOfProducts or accumulator
+	 * @param magnitude largest absolute value of a numerator or denominator
+	 * @return the operation, given an index from 0 to FRACTIONS - 1
+	 * @throws IllegalArgumentException if there is no operation of that name
+	 */
+	public static IntFunction<Object> fractionOperation(String name, int magnitude) {
+		Random random = new Random(0);
+		Fraction [] values = new Fraction[FRACTIONS];
+		for (int i = 0; i < FRACTIONS; i++) {
+			values[i] = new Fraction(random.nextInt(2 * magnitude + 1) - magnitude, 1 + random.nextInt(magnitude));
+		} // for i
+
+		switch (name) {
+			case "constructLongs":
+				return i -> new Fraction(i * 6L, 4L + i);
+			case "valueOf":
+				return i -> Fraction.valueOf(i % 64 - 32, 1 + i % 8);
+			case "constructInt":
+				return i -> new Fraction(i);
+			case "constructDouble":
+				return i -> new Fraction(i * 0.25);
+			case "add":
+				return i -> values[i].add(values[(i + 1) % FRACTIONS]);
+			case "multiply":
+				return i -> values[i].multiply(values[(i + 1) % FRACTIONS]);
+			case "sumOfProducts":
+				// a whole sum per call, with immutable fractions, to compare with accumulator
+				return i -> {
+					Fraction sum = new Fraction();
+					for (int j = 1; j < FRACTIONS; j++) {
+						sum = sum.add(values[j].multiply(values[j - 1]));
+					} // for j
+					return sum;
+				};
+			case "accumulator":
+				// the same sum with an accumulator, which should allocate only its result
+				return i -> {
+					FractionAccumulator sum = new FractionAccumulator();
+					for (int j = 1; j < FRACTIONS; j++) {
+						sum.multiplyAdd(values[j], values[j - 1]);
+					} // for j
+					return sum.toFraction();
+				};
+			default:
+				throw new IllegalArgumentException("no fraction operation named " + name);
+		} // switch
+	} // fractionOperation
+
+	/**
+	 * Creates a Matrix operation on random matrices made by MatrixBenchmark.
+	 * @param name copy, multiply, convertToREF, convertToReducedREF, det, findInverse, rank or solveSystem
+	 * @param size rows and columns
+	 * @param sparsity fraction of off-diagonal entries that are 0
+	 * @param magnitude largest absolute value of an off-diagonal entry
+	 * @param engine fraction, bareiss for fraction-free elimination, or modular for elimination modulo primes
+	 * @return the operation
+	 * @throws IllegalArgumentException if there is no operation or engine of that name
+	 */
+	public static Supplier<Object> matrixOperation(String name, int size, double sparsity, int magnitude, String engine) {
+		if (!engine.equals("fraction") && !engine.equals("bareiss") && !engine.equals("modular")) {
+			throw new IllegalArgumentException("no engine named " + engine);
+		} // if
+
+		Matrix a = MatrixBenchmark.randomMatrix(size, size, sparsity, magnitude, 1);
+		Matrix b = MatrixBenchmark.randomMatrix(size, size, sparsity, magnitude, 2);
+		AugmentedMatrix system = MatrixBenchmark.randomSystem(size, sparsity, magnitude);
+
+		switch (name) {
+			case "copy":
+				// the copy the other operations but multiply start from, so it can be subtracted
+				return () -> start(a, engine);
+			case "multiply":
+				return () -> a.multiply(b);
+			case "convertToREF":
+				return () -> start(a, engine).convertToREF();
+			case "convertToReducedREF":
+				return () -> start(a, engine).convertToReducedREF();
+			case "det":
+				return () -> start(a, engine).det();
+			case "findInverse":
+				return () -> start(a, engine).findInverse();
+			case "rank":
+				return () -> start(a, engine).rank();
+			case "solveSystem":
+				return () -> ((AugmentedMatrix)start(system, engine)).solveSystem();
+			default:
+				throw new IllegalArgumentException("no matrix operation named " + name);
+		} // switch
+	} // matrixOperation
+
+	/**
+	 * Creates a DoubleMatrix operation on the same matrices as matrixOperation, to compare the floating
+	 * point engine with the exact ones.
+	 * @param name multiply, convertToREF, det, findInverse or rank
+	 * @param size rows and columns
+	 * @param sparsity fraction of off-diagonal entries that are 0
+	 * @param magnitude largest absolute value of an off-diagonal entry
+	 * @return the operation
+	 * @throws IllegalArgumentException if there is no operation of that name
+	 */
+	public static Supplier<Object> doubleOperation(String name, int size, double sparsity, int magnitude) {
+		DoubleMatrix a = new DoubleMatrix(MatrixBenchmark.randomMatrix(size, size, sparsity, magnitude, 1));
+		DoubleMatrix b = new DoubleMatrix(MatrixBenchmark.randomMatrix(size, size, sparsity, magnitude, 2));
+
+		switch (name) {
+			case "multiply":
+				return () -> a.multiply(b);
+			case "convertToREF":
+				return () -> a.copy().convertToREF();
+			case "det":
+				return () -> a.det();
+			case "findInverse":
+				return () -> a.findInverse();
+			case "rank":
+				return () -> a.rank();
+			default:
+				throw new IllegalArgumentException("no double operation named " + name);
+		} // switch
+	} // doubleOperation
+
+	/**
+	 * Copies a matrix and switches the copy to an engine; copies do not keep the switches of the original.
+	 * @param matrix matrix to copy
+	 * @param engine fraction, bareiss or modular
+	 * @return the copy
+	 */
+	private static Matrix start(Matrix matrix, String engine) {
+		Matrix output = matrix.copy();
+		if (engine.equals("bareiss")) {
+			output.changeFractionFree();
+		} else if (engine.equals("modular")) {
+			output.changeModular();
+		} // else if
+		return output;
+	} // start
+
+} // BenchmarkFixtures
@@ -0,0 +1,84 @@
+/**
+ * JMH benchmarks of the DoubleMatrix operations on the same matrices as MatrixOperations, to compare
+ * the floating point engine with the exact ones.
+ * java -jar target/benchmarks.jar DoubleOperations -prof gc
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleOperations {
+	@Param({"2", "8", "32", "128", "512"})
+	public int size;
+
+	@Param({"0", "0.95"})
+	public double sparsity;
+
+	@Param({"10", "100000"})
+	public int magnitude;
+
+	private Supplier<Object> multiply;
+	private Supplier<Object> convertToREF;
+	private Supplier<Object> det;
+	private Supplier<Object> findInverse;
+	private Supplier<Object> rank;
+
+	@Setup
+	public void setup() {
+		multiply = Fixtures.doubleOperation("multiply", size, sparsity, magnitude);
+		convertToREF = Fixtures.doubleOperation("convertToREF", size, sparsity, magnitude);
+		det = Fixtures.doubleOperation("det", size, sparsity, magnitude);
+		findInverse = Fixtures.doubleOperation("findInverse", size, sparsity, magnitude);
+		rank = Fixtures.doubleOperation("rank", size, sparsity, magnitude);
+	} // setup
+
+	@Benchmark
+	public Object multiply() {
+		return multiply.get();
+	} // multiply
+
+	@Benchmark
+	public Object convertToREF() {
+		return convertToREF.get();
+	} // convertToREF
+
+	@Benchmark
+	public Object det() {
+		return det.get();
+	} // det
+
+	@Benchmark
+	public Object findInverse() {
+		return findInverse.get();
+	} // findInverse
+
+	@Benchmark
+	public Object rank() {
+		return rank.get();
+	} // rank
+
+} // DoubleOperations
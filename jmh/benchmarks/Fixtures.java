@@ -0,0 +1,57 @@
+/**
+ * Looks up the operations built by BenchmarkFixtures, which is in the default package and so cannot be
+ * named from here.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+final class Fixtures {
+	static final int FRACTIONS = 1024;	// must match BenchmarkFixtures.FRACTIONS
+
+	private Fixtures() {
+	} // Fixtures
+
+	@SuppressWarnings("unchecked")
+	static IntFunction<Object> fractionOperation(String name, int magnitude) {
+		return (IntFunction<Object>)call("fractionOperation", new Class<?>[] {String.class, int.class}, name, magnitude);
+	} // fractionOperation
+
+	@SuppressWarnings("unchecked")
+	static Supplier<Object> matrixOperation(String name, int size, double sparsity, int magnitude, String engine) {
+		return (Supplier<Object>)call("matrixOperation", new Class<?>[] {String.class, int.class, double.class, int.class, String.class},
+				name, size, sparsity, magnitude, engine);
+	} // matrixOperation
+
+	@SuppressWarnings("unchecked")
+	static Supplier<Object> doubleOperation(String name, int size, double sparsity, int magnitude) {
+		return (Supplier<Object>)call("doubleOperation", new Class<?>[] {String.class, int.class, double.class, int.class},
+				name, size, sparsity, magnitude);
+	} // doubleOperation
+
+	/**
+	 * Calls a static method of BenchmarkFixtures.
+	 * @param method name of the method
+	 * @param types parameter types
+	 * @param args arguments
+	 * @return what the method returns
+	 * @throws IllegalStateException if the method cannot be called
+	 */
+	private static Object call(String method, Class<?>[] types, Object... args) {
+		try {
+			return Class.forName("BenchmarkFixtures").getMethod(method, types).invoke(null, args);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("cannot call BenchmarkFixtures." + method, e);
+		} // catch
+	} // call
+
+} // Fixtures
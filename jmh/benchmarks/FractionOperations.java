@@ -0,0 +1,125 @@
+/**
+ * JMH benchmarks of the Fraction constructors and arithmetic. The binary operations cycle through 1024
+ * random fractions with entries up to the given magnitude, so the gcds are not all trivial. Times are
+ * per operation.
+ * java -jar target/benchmarks.jar FractionOperations -prof gc
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FractionOperations {
+	@Param({"10", "100000", "1000000000"})
+	public int magnitude;
+
+	private IntFunction<Object> constructLongs;
+	private IntFunction<Object> valueOf;
+	private IntFunction<Object> constructInt;
+	private IntFunction<Object> constructDouble;
+	private IntFunction<Object> add;
+	private IntFunction<Object> multiply;
+	private IntFunction<Object> sumOfProducts;
+	private IntFunction<Object> accumulator;
+
+	@Setup
+	public void setup() {
+		constructLongs = Fixtures.fractionOperation("constructLongs", magnitude);
+		valueOf = Fixtures.fractionOperation("valueOf", magnitude);
+		constructInt = Fixtures.fractionOperation("constructInt", magnitude);
+		constructDouble = Fixtures.fractionOperation("constructDouble", magnitude);
+		add = Fixtures.fractionOperation("add", magnitude);
+		multiply = Fixtures.fractionOperation("multiply", magnitude);
+		sumOfProducts = Fixtures.fractionOperation("sumOfProducts", magnitude);
+		accumulator = Fixtures.fractionOperation("accumulator", magnitude);
+	} // setup
+
+	@Benchmark
+	@OperationsPerInvocation(Fixtures.FRACTIONS)
+	public void constructLongs(Blackhole sink) {
+		run(constructLongs, sink);
+	} // constructLongs
+
+	@Benchmark
+	@OperationsPerInvocation(Fixtures.FRACTIONS)
+	public void valueOf(Blackhole sink) {
+		run(valueOf, sink);
+	} // valueOf
+
+	@Benchmark
+	@OperationsPerInvocation(Fixtures.FRACTIONS)
+	public void constructInt(Blackhole sink) {
+		run(constructInt, sink);
+	} // constructInt
+
+	@Benchmark
+	@OperationsPerInvocation(Fixtures.FRACTIONS)
+	public void constructDouble(Blackhole sink) {
+		run(constructDouble, sink);
+	} // constructDouble
+
+	@Benchmark
+	@OperationsPerInvocation(Fixtures.FRACTIONS)
+	public void add(Blackhole sink) {
+		run(add, sink);
+	} // add
+
+	@Benchmark
+	@OperationsPerInvocation(Fixtures.FRACTIONS)
+	public void multiply(Blackhole sink) {
+		run(multiply, sink);
+	} // multiply
+
+	/**
+	 * A sum of 1023 products with immutable fractions.
+	 */
+	@Benchmark
+	public Object sumOfProducts() {
+		return sumOfProducts.apply(0);
+	} // sumOfProducts
+
+	/**
+	 * The same sum with a FractionAccumulator, which should allocate only its result.
+	 */
+	@Benchmark
+	public Object accumulator() {
+		return accumulator.apply(0);
+	} // accumulator
+
+	/**
+	 * Applies an operation to every fraction, keeping each result.
+	 * @param operation the operation
+	 * @param sink keeps the results alive
+	 */
+	private static void run(IntFunction<Object> operation, Blackhole sink) {
+		for (int i = 0; i < Fixtures.FRACTIONS; i++) {
+			sink.consume(operation.apply(i));
+		} // for i
+	} // run
+
+} // FractionOperations
@@ -0,0 +1,111 @@
+/**
+ * JMH benchmarks of the Matrix operations, for every combination of size, sparsity and entry magnitude.
+ * The engine parameter picks ordinary fraction elimination, fraction-free (Bareiss) elimination, or
+ * elimination modulo primes. Operations that change their input or save their result start from a copy;
+ * copy times that copy on its own so it can be subtracted.
+ * Large sizes with large entries take a long time, so pick what to run with -p, for example:
+ * java -jar target/benchmarks.jar MatrixOperations.det -p size=8,32 -p engine=bareiss -prof gc
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixOperations {
+	@Param({"2", "8", "32", "128", "512"})
+	public int size;
+
+	@Param({"0", "0.95"})
+	public double sparsity;
+
+	@Param({"10", "100000"})
+	public int magnitude;
+
+	@Param({"fraction", "bareiss", "modular"})
+	public String engine;
+
+	private Supplier<Object> copy;
+	private Supplier<Object> multiply;
+	private Supplier<Object> convertToREF;
+	private Supplier<Object> convertToReducedREF;
+	private Supplier<Object> det;
+	private Supplier<Object> findInverse;
+	private Supplier<Object> rank;
+	private Supplier<Object> solveSystem;
+
+	@Setup
+	public void setup() {
+		copy = Fixtures.matrixOperation("copy", size, sparsity, magnitude, engine);
+		multiply = Fixtures.matrixOperation("multiply", size, sparsity, magnitude, engine);
+		convertToREF = Fixtures.matrixOperation("convertToREF", size, sparsity, magnitude, engine);
+		convertToReducedREF = Fixtures.matrixOperation("convertToReducedREF", size, sparsity, magnitude, engine);
+		det = Fixtures.matrixOperation("det", size, sparsity, magnitude, engine);
+		findInverse = Fixtures.matrixOperation("findInverse", size, sparsity, magnitude, engine);
+		rank = Fixtures.matrixOperation("rank", size, sparsity, magnitude, engine);
+		solveSystem = Fixtures.matrixOperation("solveSystem", size, sparsity, magnitude, engine);
+	} // setup
+
+	@Benchmark
+	public Object copy() {
+		return copy.get();
+	} // copy
+
+	@Benchmark
+	public Object multiply() {
+		return multiply.get();
+	} // multiply
+
+	@Benchmark
+	public Object convertToREF() {
+		return convertToREF.get();
+	} // convertToREF
+
+	@Benchmark
+	public Object convertToReducedREF() {
+		return convertToReducedREF.get();
+	} // convertToReducedREF
+
+	@Benchmark
+	public Object det() {
+		return det.get();
+	} // det
+
+	@Benchmark
+	public Object findInverse() {
+		return findInverse.get();
+	} // findInverse
+
+	@Benchmark
+	public Object rank() {
+		return rank.get();
+	} // rank
+
+	@Benchmark
+	public Object solveSystem() {
+		return solveSystem.get();
+	} // solveSystem
+
+} // MatrixOperations
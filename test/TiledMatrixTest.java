@@ -0,0 +1,86 @@
+/**
+ * Tests of TiledMatrix with a common fork-join pool of more than one thread, which the build sets up, so the
+ * parallel paths that tiled storage must stay out of are taken for every other kind of storage.
+ *
+ * @author Connor Pickles
+ * @version 1.0.0
+ * @since 2026-10-18
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class TiledMatrixTest {
+
+	@BeforeAll
+	static void checkPool() {
+		assumeTrue(ForkJoinPool.getCommonPoolParallelism() > 1, "needs -Djava.util.concurrent.ForkJoinPool.common.parallelism=4");
+	} // checkPool
+
+	@Test
+	void multiplyByDenseMatrix() {
+		Matrix a = random(300, 300, 1);
+		Matrix b = random(300, 300, 2);
+
+		try (TiledMatrix tiled = TiledMatrix.of(a, 32, 4)) {
+			assertSameEntries(a.multiply(b), tiled.multiply(b));
+		} // try
+	} // multiplyByDenseMatrix
+
+	@Test
+	void multiplyDenseByTiledMatrix() {
+		Matrix a = random(300, 300, 3);
+		Matrix b = random(300, 300, 4);
+
+		try (TiledMatrix tiled = TiledMatrix.of(b, 32, 4)) {
+			assertSameEntries(a.multiply(b), a.multiply(tiled));
+		} // try
+	} // multiplyDenseByTiledMatrix
+
+	@Test
+	void parallelSolve() {
+		Matrix a = random(40, 40, 5);
+		Matrix b = random(40, 30, 6);
+
+		try (TiledMatrix tiled = TiledMatrix.of(a, 8, 4); TiledMatrix rhs = TiledMatrix.of(b, 8, 4)) {
+			assertSameEntries(a.solve(b, false), tiled.solve(rhs, true));
+		} // try
+	} // parallelSolve
+
+	/**
+	 * Creates a matrix of random integers from -9 to 9 in packed storage.
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param seed random seed
+	 * @return the matrix
+	 */
+	private static Matrix random(int rows, int cols, long seed) {
+		Random random = new Random(seed);
+		PackedStorage storage = new PackedStorage(rows, cols);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < cols; j++) {
+				storage.set(i, j, Fraction.valueOf(random.nextInt(19) - 9));
+			} // for j
+		} // for i
+
+		return new Matrix(storage);
+	} // random
+
+	private static void assertSameEntries(Matrix expected, Matrix actual) {
+		assertEquals(expected.numRows(), actual.numRows());
+		assertEquals(expected.numCols(), actual.numCols());
+		for (int i = 0; i < expected.numRows(); i++) {
+			for (int j = 0; j < expected.numCols(); j++) {
+				assertEquals(expected.getFrac(i, j).toString(), actual.getFrac(i, j).toString(), "entry (" + i + ", " + j + ")");
+			} // for j
+		} // for i
+	} // assertSameEntries
+
+} // TiledMatrixTest